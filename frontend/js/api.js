@@ -204,6 +204,10 @@ class ApiService {
         return this.getFavoritesByUser(userId);
     }
 
+    async getHomeFeed(userId) {
+        return this.request(`/home/${userId}`);
+    }
+
     async getPlaylistSongCount(playlistId) {
         try {
             const songs = await this.getSongsByPlaylist(playlistId);
@@ -197,7 +197,10 @@ class MusicPlayer {
 
     playSong(song) {
         this.currentSong = song;
-        this.audio.src = song.url; // Assume song has url
+        // Range-capable endpoint so seeking doesn't re-download the file
+        this.audio.src = song.songID != null
+            ? `${CONFIG.API_BASE_URL}/songs/${song.songID}/stream`
+            : song.url;
         this.audio.play();
     }
 
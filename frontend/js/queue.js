@@ -9,6 +9,7 @@ class QueueManager {
         this.isShuffled = false;
         this.repeatMode = 'off';
         this.maxHistorySize = 50;
+        this.radioCursor = null;
         this.init();
     }
 
@@ -36,6 +37,7 @@ class QueueManager {
     }
 
     setQueue(songs, startIndex = 0) {
+        this.radioCursor = null;
         this.queue = [...songs];
         this.originalQueue = [...songs];
         this.currentIndex = startIndex;
@@ -232,7 +234,7 @@ class QueueManager {
                     this.currentIndex++;
                     window.player.playSong(this.queue[this.currentIndex]);
                 } else {
-                    window.player.stop();
+                    this.continueWithRadio();
                 }
                 break;
         }
@@ -240,6 +242,44 @@ class QueueManager {
         this.updateUI();
     }
 
+    // Keeps playing after the last queued song with a radio station seeded by it
+    async continueWithRadio() {
+        const lastSong = this.queue[this.currentIndex];
+        if (!lastSong) {
+            window.player.stop();
+            return;
+        }
+        try {
+            const user = window.authManager?.currentUser;
+            let url = `${CONFIG.API_BASE_URL}/radio?`;
+            url += this.radioCursor
+                ? `cursor=${encodeURIComponent(this.radioCursor)}`
+                : `seed=song&id=${lastSong.songID}` + (user ? `&userId=${user.id}` : '');
+            let response = await fetch(url);
+            if (response.status === 404 && this.radioCursor) {
+                // Station expired; start a new one from the last song
+                this.radioCursor = null;
+                return this.continueWithRadio();
+            }
+            if (!response.ok) throw new Error(`HTTP error! status: ${response.status}`);
+            const songs = await response.json();
+            this.radioCursor = response.headers.get('X-Next-Cursor');
+            if (songs.length === 0) {
+                window.player.stop();
+                return;
+            }
+            this.queue.push(...songs);
+            this.originalQueue.push(...songs);
+            this.currentIndex++;
+            window.player.playSong(this.queue[this.currentIndex]);
+            this.updateUI();
+            this.dispatchQueueEvent('songs-added', { songs, position: 'end' });
+        } catch (error) {
+            console.error('Radio failed:', error);
+            window.player.stop();
+        }
+    }
+
     addToHistory(index) {
         if (index >= 0 && index < this.queue.length) {
             this.history.push(this.queue[index]);
@@ -99,9 +99,13 @@ class UIManager {
         const recentlyPlayedGrid = document.getElementById('recentlyPlayedGrid');
         const artistsGrid = document.getElementById('artistsGrid');
 
-        const songs = await apiService.getSongs();
-        const recentSongs = songs.slice(0, 6);
-        this.renderMusicGrid(recentlyPlayedGrid, recentSongs, 'song');
+        // Signed-in users get their precomputed feed in one call
+        const user = window.authManager?.currentUser;
+        const feed = user ? await apiService.getHomeFeed(user.id).catch(() => null) : null;
+        const recentSongs = feed && feed.recentlyPlayed.length > 0
+            ? feed.recentlyPlayed
+            : (await apiService.getSongs()).slice(0, 6);
+        this.renderMusicGrid(recentlyPlayedGrid, recentSongs.slice(0, 6), 'song');
 
         const artists = await apiService.getArtists();
         this.renderMusicGrid(artistsGrid, artists.slice(0, 6), 'artist');
@@ -125,7 +129,12 @@ class UIManager {
         items.forEach(item => {
             const card = document.createElement('div');
             card.className = 'card';
-            card.innerHTML = `<img src="${item.cover || 'placeholder'}" alt="${item.name || item.title}"> <h3>${item.name || item.title}</h3>`;
+            // Albums and songs get a grid-sized album thumbnail instead of the full cover
+            const albumId = type === 'album' ? item.albumID : item.album?.albumID;
+            const cover = albumId != null
+                ? `${CONFIG.API_BASE_URL}/albums/${albumId}/cover?size=256`
+                : item.cover;
+            card.innerHTML = `<img src="${cover || 'placeholder'}" alt="${item.name || item.title}"> <h3>${item.name || item.title}</h3>`;
             container.appendChild(card);
         });
     }
@@ -1,9 +1,20 @@
 package com.example.music_app_project.controller;
 
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -12,13 +23,20 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.music_app_project.dto.AlbumSummary;
+import com.example.music_app_project.event.CatalogChangedEvent;
 import com.example.music_app_project.model.Album;
 import com.example.music_app_project.model.Artist;
 import com.example.music_app_project.repository.AlbumRepository;
 import com.example.music_app_project.repository.ArtistRepository;
+import com.example.music_app_project.service.CatalogVersions;
+import com.example.music_app_project.service.CoverThumbnails;
+import com.example.music_app_project.service.UploadsResolver;
 
 @RestController
 @RequestMapping("/api/albums")
@@ -28,13 +46,30 @@ public class AlbumController {
     @Autowired
     private AlbumRepository albumRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
     @Autowired
     private ArtistRepository artistRepository;
 
+    @Autowired
+    private UploadsResolver uploadsResolver;
+
+    @Autowired
+    private CoverThumbnails coverThumbnails;
+
     // Get all albums
     @GetMapping
-    public List<Album> getAllAlbums() {
-        return albumRepository.findAll();
+    public ResponseEntity<List<AlbumSummary>> getAllAlbums(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = catalogVersions.etag(CatalogVersions.Collection.ALBUMS);
+        if (catalogVersions.matches(ifNoneMatch, etag)) {
+            return catalogVersions.notModified(etag);
+        }
+        return catalogVersions.ok(etag).body(albumRepository.findAllSummaries());
     }
 
     // Get album by ID
@@ -44,6 +79,42 @@ public class AlbumController {
         return album.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    // Resized cover. Redirects to the content-addressed variant below, which never
+    // changes and can be cached for good; covers hosted elsewhere are redirected to as-is.
+    @GetMapping("/{id}/cover")
+    public ResponseEntity<Void> getCover(@PathVariable Integer id, @RequestParam(required = false) Integer size)
+            throws IOException {
+        Optional<Album> album = albumRepository.findById(id);
+        if (album.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String cover = album.get().getCoverImage();
+        if (UploadsResolver.isRemote(cover)) {
+            return ResponseEntity.status(HttpStatus.FOUND).location(URI.create(cover)).build();
+        }
+        Path source = uploadsResolver.resolve(cover);
+        if (source == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String variant = coverThumbnails.variant(source, coverThumbnails.snap(size));
+        return ResponseEntity.status(HttpStatus.FOUND)
+                .location(URI.create("/api/albums/" + id + "/cover/" + variant))
+                .cacheControl(CacheControl.noCache())
+                .build();
+    }
+
+    @GetMapping("/{id}/cover/{variant}")
+    public ResponseEntity<Resource> getCoverVariant(@PathVariable Integer id, @PathVariable String variant) {
+        Path file = coverThumbnails.variantFile(variant);
+        if (file == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .contentType(MediaType.IMAGE_JPEG)
+                .body(new FileSystemResource(file));
+    }
+
     // Create new album
     @PostMapping
     public ResponseEntity<Album> createAlbum(@RequestBody Album album) {
@@ -53,6 +124,7 @@ public class AlbumController {
         }
         album.setArtist(artist.get());
         Album savedAlbum = albumRepository.save(album);
+        publish(CatalogChangedEvent.Action.CREATED, savedAlbum.getAlbumID(), savedAlbum);
         return ResponseEntity.ok(savedAlbum);
     }
 
@@ -76,6 +148,7 @@ public class AlbumController {
         existingAlbum.setArtist(artist.get());
 
         Album updatedAlbum = albumRepository.save(existingAlbum);
+        publish(CatalogChangedEvent.Action.UPDATED, id, updatedAlbum);
         return ResponseEntity.ok(updatedAlbum);
     }
 
@@ -86,6 +159,11 @@ public class AlbumController {
             return ResponseEntity.notFound().build();
         }
         albumRepository.deleteById(id);
+        publish(CatalogChangedEvent.Action.DELETED, id, null);
         return ResponseEntity.noContent().build();
     }
+
+    private void publish(CatalogChangedEvent.Action action, Integer id, Album album) {
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.ALBUM, action, id, album));
+    }
 }
@@ -1,9 +1,15 @@
 package com.example.music_app_project.controller;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -12,11 +18,18 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.music_app_project.dto.ArtistSummary;
+import com.example.music_app_project.dto.SimilarArtist;
+import com.example.music_app_project.event.CatalogChangedEvent;
 import com.example.music_app_project.model.Artist;
 import com.example.music_app_project.repository.ArtistRepository;
+import com.example.music_app_project.service.CatalogVersions;
+import com.example.music_app_project.service.SimilarArtists;
 
 @RestController
 @RequestMapping("/api/artists")
@@ -26,10 +39,24 @@ public class ArtistController {
     @Autowired
     private ArtistRepository artistRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Autowired
+    private SimilarArtists similarArtists;
+
     // Get all artists
     @GetMapping
-    public List<Artist> getAllArtists() {
-        return artistRepository.findAll();
+    public ResponseEntity<List<ArtistSummary>> getAllArtists(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = catalogVersions.etag(CatalogVersions.Collection.ARTISTS);
+        if (catalogVersions.matches(ifNoneMatch, etag)) {
+            return catalogVersions.notModified(etag);
+        }
+        return catalogVersions.ok(etag).body(artistRepository.findAllSummaries());
 }
 
 // Get artist by ID
@@ -39,10 +66,37 @@ public class ArtistController {
         return artist.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
  }
 
+    // Fans also like: artists with overlapping favorites and playlists, from memory
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<SimilarArtist>> getSimilarArtists(@PathVariable Integer id,
+                                                                 @RequestParam(defaultValue = "10") int limit) {
+        if (!artistRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        SimilarArtists.Similar similar = similarArtists.similar(id);
+        Map<Integer, ArtistSummary> summaries = new HashMap<>();
+        List<Integer> ids = Arrays.stream(similar.artistIds()).limit(Math.max(limit, 0)).boxed().toList();
+        if (!ids.isEmpty()) {
+            for (ArtistSummary artist : artistRepository.findSummariesByIds(ids)) {
+                summaries.put(artist.getArtistID(), artist);
+            }
+        }
+        List<SimilarArtist> artists = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            // Artists deleted since the last rebuild are skipped
+            ArtistSummary artist = summaries.get(ids.get(i));
+            if (artist != null) {
+                artists.add(new SimilarArtist(similar.similarity()[i], artist));
+            }
+        }
+        return ResponseEntity.ok(artists);
+    }
+
     // Create a new artist
     @PostMapping
     public ResponseEntity<Artist> createArtist(@RequestBody Artist artist) {
         Artist savedArtist = artistRepository.save(artist);
+        publish(CatalogChangedEvent.Action.CREATED, savedArtist.getArtistID(), savedArtist);
         return ResponseEntity.ok(savedArtist);
     }
 
@@ -62,6 +116,7 @@ public class ArtistController {
         existingArtist.setBirthDate(artistDetails.getBirthDate());
 
         Artist updatedArtist = artistRepository.save(existingArtist);
+        publish(CatalogChangedEvent.Action.UPDATED, id, updatedArtist);
         return ResponseEntity.ok(updatedArtist);
      }
 
@@ -72,6 +127,11 @@ public class ArtistController {
           return ResponseEntity.notFound().build();
         }
        artistRepository.deleteById(id);
+        publish(CatalogChangedEvent.Action.DELETED, id, null);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    private void publish(CatalogChangedEvent.Action action, Integer id, Artist artist) {
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.ARTIST, action, id, artist));
+    }
+}
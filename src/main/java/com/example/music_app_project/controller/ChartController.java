@@ -0,0 +1,92 @@
+package com.example.music_app_project.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.music_app_project.dto.ArtistSummary;
+import com.example.music_app_project.dto.ChartEntry;
+import com.example.music_app_project.dto.GenreSummary;
+import com.example.music_app_project.dto.SongSummary;
+import com.example.music_app_project.dto.TrendingSong;
+import com.example.music_app_project.service.PlayCharts;
+import com.example.music_app_project.service.SongCache;
+import com.example.music_app_project.service.TrendingSongs;
+
+// Most played songs, artists and genres over the last 24h, 7d, 30d or all time,
+// and trending songs. Rankings come from the in-memory counters in PlayCharts
+// and TrendingSongs, songs from SongCache.
+@RestController
+@RequestMapping("/api/charts")
+@CrossOrigin(origins = "*")
+public class ChartController {
+
+    @Autowired
+    private PlayCharts playCharts;
+
+    @Autowired
+    private SongCache songCache;
+
+    @Autowired
+    private TrendingSongs trendingSongs;
+
+    @GetMapping("/songs")
+    public ResponseEntity<List<ChartEntry<SongSummary>>> songs(@RequestParam(defaultValue = "7d") String window,
+                                                               @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(chart(PlayCharts.Dimension.SONG, window, limit, id -> songCache.get(id).orElse(null)));
+    }
+
+    @GetMapping("/artists")
+    public ResponseEntity<List<ChartEntry<ArtistSummary>>> artists(@RequestParam(defaultValue = "7d") String window,
+                                                                   @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(chart(PlayCharts.Dimension.ARTIST, window, limit, playCharts::artist));
+    }
+
+    @GetMapping("/genres")
+    public ResponseEntity<List<ChartEntry<GenreSummary>>> genres(@RequestParam(defaultValue = "7d") String window,
+                                                                 @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(chart(PlayCharts.Dimension.GENRE, window, limit, playCharts::genre));
+    }
+
+    // Songs whose play rate is spiking relative to their usual rate
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingSong>> trending(@RequestParam(defaultValue = "20") int limit) {
+        List<TrendingSong> songs = new ArrayList<>();
+        for (TrendingSongs.Trend trend : trendingSongs.top(Math.max(1, Math.min(limit, playCharts.getMaxSize())))) {
+            songCache.get(trend.songId()).ifPresent(song ->
+                    songs.add(new TrendingSong(songs.size() + 1, trend.score(), trend.recentPlays(), song)));
+        }
+        return ResponseEntity.ok(songs);
+    }
+
+    private <T> List<ChartEntry<T>> chart(PlayCharts.Dimension dimension, String window, int limit,
+                                          IntFunction<T> lookup) {
+        PlayCharts.Window parsed;
+        try {
+            parsed = PlayCharts.Window.parse(window);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "window must be 24h, 7d, 30d or all");
+        }
+        PlayCharts.Ranking ranking = playCharts.top(dimension, parsed,
+                Math.max(1, Math.min(limit, playCharts.getMaxSize())));
+        List<ChartEntry<T>> entries = new ArrayList<>(ranking.size());
+        for (int i = 0; i < ranking.size(); i++) {
+            T item = lookup.apply(ranking.ids()[i]);
+            // Deleted since it was played
+            if (item != null) {
+                entries.add(new ChartEntry<>(entries.size() + 1, ranking.plays()[i], item));
+            }
+        }
+        return entries;
+    }
+}
@@ -1,9 +1,13 @@
 package com.example.music_app_project.controller;
 
+import com.example.music_app_project.event.CatalogChangedEvent;
 import com.example.music_app_project.model.Genre;
 import com.example.music_app_project.repository.GenreRepository;
+import com.example.music_app_project.service.CatalogVersions;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,10 +21,21 @@ public class GenreController {
     @Autowired
     private GenreRepository genreRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
     // Get all genres
     @GetMapping
-    public List<Genre> getAllGenres() {
-        return genreRepository.findAll();
+    public ResponseEntity<List<Genre>> getAllGenres(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = catalogVersions.etag(CatalogVersions.Collection.GENRES);
+        if (catalogVersions.matches(ifNoneMatch, etag)) {
+            return catalogVersions.notModified(etag);
+        }
+        return catalogVersions.ok(etag).body(genreRepository.findAll());
     }
 
     // Get genre by ID
@@ -38,6 +53,7 @@ public class GenreController {
             return ResponseEntity.badRequest().body(null); // Name must be unique
         }
         Genre saved = genreRepository.save(genre);
+        publish(CatalogChangedEvent.Action.CREATED, saved.getGenreID(), saved);
         return ResponseEntity.ok(saved);
     }
 
@@ -53,6 +69,7 @@ public class GenreController {
         existing.setGenreName(updatedGenre.getGenreName());
 
         genreRepository.save(existing);
+        publish(CatalogChangedEvent.Action.UPDATED, id, existing);
         return ResponseEntity.ok(existing);
     }
 
@@ -63,6 +80,11 @@ public class GenreController {
             return ResponseEntity.notFound().build();
         }
         genreRepository.deleteById(id);
+        publish(CatalogChangedEvent.Action.DELETED, id, null);
         return ResponseEntity.noContent().build();
     }
+
+    private void publish(CatalogChangedEvent.Action action, Integer id, Genre genre) {
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.GENRE, action, id, genre));
+    }
 }
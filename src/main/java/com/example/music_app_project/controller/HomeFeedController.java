@@ -0,0 +1,51 @@
+package com.example.music_app_project.controller;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.music_app_project.service.HomeFeeds;
+
+// A user's whole home view in one call: recently played, picks based on their
+// favorites, top songs of their favorite genres and new releases. The feed is
+// precomputed and stored gzipped; clients that accept gzip get it byte for byte.
+@RestController
+@RequestMapping("/api/home")
+@CrossOrigin(origins = "*")
+public class HomeFeedController {
+
+    @Autowired
+    private HomeFeeds homeFeeds;
+
+    @GetMapping("/{userId}")
+    public ResponseEntity<byte[]> getHomeFeed(@PathVariable Integer userId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding)
+            throws IOException {
+        Optional<byte[]> feed = homeFeeds.gzipped(userId);
+        if (feed.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip")) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(feed.get());
+        }
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(feed.get()))) {
+            return response.body(in.readAllBytes());
+        }
+    }
+}
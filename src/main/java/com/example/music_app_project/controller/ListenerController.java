@@ -0,0 +1,56 @@
+package com.example.music_app_project.controller;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.music_app_project.service.ListenerCounts;
+
+// Approximate unique listeners of a song or an artist, all time or between two
+// days (inclusive). The estimate comes with its relative standard error.
+@RestController
+@RequestMapping("/api/listeners")
+@CrossOrigin(origins = "*")
+public class ListenerController {
+
+    @Autowired
+    private ListenerCounts listenerCounts;
+
+    @GetMapping("/songs/{id}")
+    public ResponseEntity<Map<String, Object>> song(@PathVariable Integer id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return listeners(ListenerCounts.Kind.SONG, id, from, to);
+    }
+
+    @GetMapping("/artists/{id}")
+    public ResponseEntity<Map<String, Object>> artist(@PathVariable Integer id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return listeners(ListenerCounts.Kind.ARTIST, id, from, to);
+    }
+
+    private ResponseEntity<Map<String, Object>> listeners(ListenerCounts.Kind kind, int id, LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        ListenerCounts.Estimate estimate = listenerCounts.estimate(kind, id, from, to);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("id", id);
+        body.put("from", from);
+        body.put("to", to);
+        body.put("uniqueListeners", estimate.uniqueListeners());
+        body.put("standardError", estimate.standardError());
+        return ResponseEntity.ok(body);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.music_app_project.controller;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.music_app_project.service.HotAudioCache;
+import com.example.music_app_project.service.PlayIngestor;
+import com.example.music_app_project.service.SongCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+@RestController
+@RequestMapping("/api/metrics")
+@CrossOrigin(origins = "*")
+public class MetricsController {
+
+    @Autowired
+    private SongCache songCache;
+
+    @Autowired
+    private HotAudioCache hotAudioCache;
+
+    @Autowired
+    private PlayIngestor playIngestor;
+
+    // Counters for sizing the song cache
+    @GetMapping("/song-cache")
+    public Map<String, Object> songCache() {
+        CacheStats stats = songCache.stats();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("size", songCache.size());
+        body.put("hits", stats.hitCount());
+        body.put("misses", stats.missCount());
+        body.put("hitRate", stats.hitRate());
+        body.put("evictions", stats.evictionCount());
+        body.put("averageLoadNanos", stats.averageLoadPenalty());
+        return body;
+    }
+
+    // Mapped audio files and whether their pages are still resident
+    @GetMapping("/hot-audio")
+    public Map<String, Object> hotAudio() {
+        List<HotAudioCache.Entry> entries = hotAudioCache.entries();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("mappedBytes", hotAudioCache.getMappedBytes());
+        body.put("maxBytes", hotAudioCache.getMaxBytes());
+        body.put("hits", entries.stream().mapToLong(HotAudioCache.Entry::getHits).sum());
+        body.put("misses", hotAudioCache.getMisses());
+        body.put("files", entries.stream().map(entry -> {
+            Map<String, Object> file = new LinkedHashMap<>();
+            file.put("path", hotAudioCache.relativize(entry.getPath()));
+            file.put("bytes", entry.getLength());
+            file.put("hits", entry.getHits());
+            file.put("resident", entry.isLoaded());
+            return file;
+        }).toList());
+        return body;
+    }
+
+    // Write-behind play history queue and batch counters
+    @GetMapping("/play-ingest")
+    public Map<String, Object> playIngest() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("queued", playIngestor.queueSize());
+        body.put("accepted", playIngestor.getAccepted());
+        body.put("rejected", playIngestor.getRejected());
+        body.put("invalid", playIngestor.getInvalid());
+        body.put("written", playIngestor.getWritten());
+        body.put("dropped", playIngestor.getDropped());
+        body.put("batches", playIngestor.getBatches());
+        return body;
+    }
+}
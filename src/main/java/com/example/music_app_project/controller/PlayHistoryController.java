@@ -1,8 +1,15 @@
 package com.example.music_app_project.controller;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -10,13 +17,21 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.music_app_project.dto.RecentPlay;
+import com.example.music_app_project.event.PlaysRecordedEvent;
 import com.example.music_app_project.model.PlayHistory;
 import com.example.music_app_project.repository.PlayHistoryRepository;
 import com.example.music_app_project.repository.SongRepository;
 import com.example.music_app_project.repository.UserRepository;
+import com.example.music_app_project.service.ActivityExporter;
+import com.example.music_app_project.service.PlayIngestor;
+import com.example.music_app_project.service.RecentPlays;
 
 @RestController
 @RequestMapping("/api/play-history")
@@ -32,10 +47,62 @@ public class PlayHistoryController {
     @Autowired
     private SongRepository songRepository;
 
-    // Get all play history entries
+    @Autowired
+    private PlayIngestor playIngestor;
+
+    @Autowired
+    private RecentPlays recentPlays;
+
+    @Autowired
+    private ActivityExporter activityExporter;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${music.play-history.write-behind:false}")
+    private boolean writeBehind;
+
+    @Value("${music.play-history.page-size:100}")
+    private int defaultPageSize;
+
+    @Value("${music.play-history.max-page-size:1000}")
+    private int maxPageSize;
+
+    // Play history, newest first, a page at a time. Pass the X-Next-Cursor header
+    // of a page as cursor to get the next one; userId narrows to one user.
     @GetMapping
-    public List<PlayHistory> getAllPlayHistory() {
-        return playHistoryRepository.findAll();
+    public ResponseEntity<List<PlayHistory>> getAllPlayHistory(@RequestParam(required = false) Integer userId,
+                                                               @RequestParam(required = false) Integer cursor,
+                                                               @RequestParam(required = false) Integer limit) {
+        int size = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        Limit page = Limit.of(size);
+        List<PlayHistory> history;
+        if (userId != null) {
+            history = cursor == null
+                    ? playHistoryRepository.findByUser_IdOrderByHistoryIDDesc(userId, page)
+                    : playHistoryRepository.findByUser_IdAndHistoryIDLessThanOrderByHistoryIDDesc(userId, cursor, page);
+        } else {
+            history = cursor == null
+                    ? playHistoryRepository.findAllByOrderByHistoryIDDesc(page)
+                    : playHistoryRepository.findByHistoryIDLessThanOrderByHistoryIDDesc(cursor, page);
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (history.size() == size) {
+            response.header(SongController.NEXT_CURSOR_HEADER, String.valueOf(history.get(size - 1).getHistoryID()));
+        }
+        return response.body(history);
+    }
+
+    // Flat export for analysis: format=ndjson|csv, optional userId and from/to days
+    // (inclusive); gzip-compressed when the client sends Accept-Encoding: gzip
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPlayHistory(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) Integer userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return activityExporter.export(ActivityExporter.Dataset.PLAYS, format, userId, from, to, acceptEncoding);
     }
 
     // Get play history by ID
@@ -46,9 +113,29 @@ public class PlayHistoryController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    // Create a new play history entry
+    // A user's most recent plays, newest first, served from memory
+    @GetMapping("/user/{userId}/recent")
+    public ResponseEntity<List<RecentPlay>> getRecentPlays(@PathVariable Integer userId,
+                                                           @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(recentPlays.recent(userId, limit));
+    }
+
+    // Create a new play history entry; with write-behind the row is queued and
+    // written by the next batch, so the response is 202 without a body
     @PostMapping
     public ResponseEntity<PlayHistory> createPlayHistory(@RequestBody PlayHistory history) {
+        if (writeBehind) {
+            PlayIngestor.Result result = playIngestor.submit(
+                    history.getUser() == null ? null : history.getUser().getId(),
+                    history.getSong() == null ? null : history.getSong().getSongID());
+            return switch (result) {
+                case ACCEPTED -> ResponseEntity.status(HttpStatus.ACCEPTED).build();
+                case INVALID -> ResponseEntity.badRequest().build();
+                case BUSY -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .build();
+            };
+        }
         if (history.getUser() == null || !userRepository.existsById(history.getUser().getId())) {
             return ResponseEntity.badRequest().build();
         }
@@ -57,16 +144,20 @@ public class PlayHistoryController {
         }
 
         PlayHistory saved = playHistoryRepository.save(history);
+        eventPublisher.publishEvent(new PlaysRecordedEvent(List.of(new PlaysRecordedEvent.Play(
+                history.getUser().getId(), history.getSong().getSongID(), saved.getPlayedAt()))));
         return ResponseEntity.ok(saved);
     }
 
     // Delete a play history record
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletePlayHistory(@PathVariable Integer id) {
-        if (!playHistoryRepository.existsById(id)) {
+        PlayHistory history = playHistoryRepository.findById(id).orElse(null);
+        if (history == null) {
             return ResponseEntity.notFound().build();
         }
-        playHistoryRepository.deleteById(id);
+        playHistoryRepository.delete(history);
+        recentPlays.invalidate(history.getUser().getId());
         return ResponseEntity.noContent().build();
     }
 }
@@ -1,9 +1,11 @@
 package com.example.music_app_project.controller;
 
+import com.example.music_app_project.event.CollectionChangedEvent;
 import com.example.music_app_project.model.*;
 import com.example.music_app_project.repository.*;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -23,6 +25,9 @@ public class PlaylistSongController {
     @Autowired
     private SongRepository songRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // Get all playlist-song entries
     @GetMapping
     public List<PlaylistSong> getAllPlaylistSongs() {
@@ -50,6 +55,8 @@ public class PlaylistSongController {
 
         ps.setAddedAt(LocalDateTime.now()); // set the current time
         PlaylistSong saved = playlistSongRepository.save(ps);
+        eventPublisher.publishEvent(new CollectionChangedEvent(CollectionChangedEvent.Type.PLAYLIST,
+                CollectionChangedEvent.Action.ADDED, ps.getPlaylistID(), ps.getSongID()));
         return ResponseEntity.ok(saved);
     }
 
@@ -61,6 +68,8 @@ public class PlaylistSongController {
             return ResponseEntity.notFound().build();
         }
         playlistSongRepository.deleteById(id);
+        eventPublisher.publishEvent(new CollectionChangedEvent(CollectionChangedEvent.Type.PLAYLIST,
+                CollectionChangedEvent.Action.REMOVED, playlistID, songID));
         return ResponseEntity.noContent().build();
     }
 }
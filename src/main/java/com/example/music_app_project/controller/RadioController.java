@@ -0,0 +1,66 @@
+package com.example.music_app_project.controller;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.music_app_project.dto.SongSummary;
+import com.example.music_app_project.service.RadioStations;
+
+// Endless radio. ?seed=song|artist|genre&id= (plus userId to skip the user's
+// recent plays) starts a station; the station comes back in X-Next-Cursor and
+// ?cursor= returns its next batch, never repeating a song until the catalog
+// runs out. An expired station answers 404 and has to be started again.
+@RestController
+@RequestMapping("/api/radio")
+@CrossOrigin(origins = "*", exposedHeaders = SongController.NEXT_CURSOR_HEADER)
+public class RadioController {
+
+    @Autowired
+    private RadioStations radioStations;
+
+    @Value("${music.radio.batch-size:20}")
+    private int defaultBatchSize;
+
+    @Value("${music.radio.max-batch-size:100}")
+    private int maxBatchSize;
+
+    @GetMapping
+    public ResponseEntity<List<SongSummary>> radio(@RequestParam(required = false) String seed,
+                                                   @RequestParam(required = false) Integer id,
+                                                   @RequestParam(required = false) Integer userId,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false) Integer limit) {
+        int size = Math.max(1, Math.min(limit != null ? limit : defaultBatchSize, maxBatchSize));
+        Optional<RadioStations.Batch> batch;
+        if (cursor != null) {
+            batch = radioStations.next(cursor, size);
+        } else {
+            if (seed == null || id == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "seed and id, or cursor, are required");
+            }
+            RadioStations.SeedType type;
+            try {
+                type = RadioStations.SeedType.parse(seed);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "seed must be song, artist or genre");
+            }
+            batch = radioStations.start(type, id, userId, size);
+        }
+        return batch
+                .map(b -> ResponseEntity.ok()
+                        .header(SongController.NEXT_CURSOR_HEADER, b.station())
+                        .body(b.songs()))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.music_app_project.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.music_app_project.dto.Suggestion;
+import com.example.music_app_project.repository.AlbumRepository;
+import com.example.music_app_project.repository.ArtistRepository;
+import com.example.music_app_project.repository.SongRepository;
+import com.example.music_app_project.service.SuggestionIndex;
+import com.example.music_app_project.util.SearchKeys;
+
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "*")
+public class SearchController {
+
+    @Autowired
+    private SuggestionIndex suggestionIndex;
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @Autowired
+    private ArtistRepository artistRepository;
+
+    @Autowired
+    private AlbumRepository albumRepository;
+
+    // Accent-insensitive prefix search: "son tung" finds "Sơn Tùng".
+    // Each lookup is an index range scan on the folded key column.
+    @GetMapping
+    public Map<String, List<?>> search(@RequestParam String q,
+                                       @RequestParam(defaultValue = "20") int limit) {
+        String from = SearchKeys.fold(q);
+        if (from.isEmpty()) {
+            return Map.of("songs", List.of(), "artists", List.of(), "albums", List.of());
+        }
+        String to = from + SearchKeys.MAX_CHAR;
+        Limit max = Limit.of(Math.max(1, Math.min(limit, 100)));
+        return Map.of(
+                "songs", songRepository.findByTitleKeyRange(from, to, max),
+                "artists", artistRepository.findByNameKeyRange(from, to, max),
+                "albums", albumRepository.findByTitleKeyRange(from, to, max));
+    }
+
+    // Typeahead: best song, artist and album completions for the typed prefix
+    @GetMapping("/suggest")
+    public List<Suggestion> suggest(@RequestParam String q,
+                                    @RequestParam(defaultValue = "5") int limit) {
+        return suggestionIndex.suggest(q, Math.max(1, limit));
+    }
+}
@@ -1,9 +1,25 @@
 package com.example.music_app_project.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -12,21 +28,52 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.music_app_project.dto.FacetCounts;
+import com.example.music_app_project.dto.ImportReport;
+import com.example.music_app_project.dto.SimilarSong;
+import com.example.music_app_project.dto.SongSummary;
+import com.example.music_app_project.dto.StoredAudio;
+import com.example.music_app_project.event.CatalogChangedEvent;
 import com.example.music_app_project.model.Song;
 import com.example.music_app_project.repository.AlbumRepository;
 import com.example.music_app_project.repository.ArtistRepository;
 import com.example.music_app_project.repository.GenreRepository;
 import com.example.music_app_project.repository.SongRepository;
+import com.example.music_app_project.service.AudioAnalysisPipeline;
+import com.example.music_app_project.service.UploadsResolver;
+import com.example.music_app_project.service.AudioStore;
+import com.example.music_app_project.service.AudioStreamer;
+import com.example.music_app_project.service.CatalogImporter;
+import com.example.music_app_project.service.CatalogVersions;
+import com.example.music_app_project.service.FacetIndex;
+import com.example.music_app_project.service.SongCache;
+import com.example.music_app_project.service.SongCatalogStreamer;
+import com.example.music_app_project.service.SongSearchIndex;
+import com.example.music_app_project.service.SongSimilarity;
+import com.example.music_app_project.util.IntBitmap;
+import com.example.music_app_project.util.SearchKeys;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/api/songs")
 @CrossOrigin(origins = "*")
 public class SongController {
 
+    // Id of the last song of a full page; pass it back as ?cursor= to get the next page
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    // Ids per IN (...) query when loading index hits
+    private static final int ID_BATCH = 1000;
+
     @Autowired
     private SongRepository songRepository;
     @Autowired
@@ -35,19 +82,57 @@ public class SongController {
     private AlbumRepository albumRepository;
     @Autowired
     private GenreRepository genreRepository;
+    @Autowired
+    private SongSearchIndex songSearchIndex;
+    @Autowired
+    private FacetIndex facetIndex;
+    @Autowired
+    private SongCatalogStreamer songCatalogStreamer;
+    @Autowired
+    private SongCache songCache;
+    @Autowired
+    private CatalogVersions catalogVersions;
+    @Autowired
+    private CatalogImporter catalogImporter;
+    @Autowired
+    private UploadsResolver uploadsResolver;
+    @Autowired
+    private AudioStreamer audioStreamer;
+    @Autowired
+    private AudioStore audioStore;
+    @Autowired
+    private AudioAnalysisPipeline audioAnalysisPipeline;
+    @Autowired
+    private SongSimilarity songSimilarity;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${music.songs.page-size:50}")
+    private int defaultPageSize;
+    @Value("${music.songs.max-page-size:500}")
+    private int maxPageSize;
 
-    // Get all songs with optional filters
+    // Get all songs with optional filters.
+    // The unfiltered catalog can be paged by id with cursor/limit;
+    // facets=true wraps the result as {songs, facets} with per-genre/artist/album counts.
     @GetMapping
-public List<Song> getAllSongs(
+public ResponseEntity<?> getAllSongs(
         @RequestParam(required = false) String searchTerm,
         @RequestParam(required = false) String genre,
-        @RequestParam(required = false) String artist) { // <-- thêm tham số mới
+        @RequestParam(required = false) String artist, // <-- thêm tham số mới
+        @RequestParam(required = false) Integer cursor,
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(defaultValue = "false") boolean facets,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
-    // Nếu chọn option "Only songs without artist"
-    if ("none".equalsIgnoreCase(artist)) {
-        return songRepository.findSongsWithoutArtistButHasGenre();
+    String etag = catalogVersions.etag(CatalogVersions.Collection.SONGS);
+    if (catalogVersions.matches(ifNoneMatch, etag)) {
+        return catalogVersions.notModified(etag);
     }
 
+    // Nếu chọn option "Only songs without artist"
+    boolean withoutArtist = "none".equalsIgnoreCase(artist);
+
     Integer genreId = null;
     if (genre != null) {
         if ("unknown".equalsIgnoreCase(genre)) {
@@ -64,20 +149,147 @@ public List<Song> getAllSongs(
     boolean hasSearch = searchTerm != null && !searchTerm.trim().isEmpty();
     boolean hasGenre = genreId != null;
 
-    if (hasSearch || hasGenre) {
-        return songRepository.findBySearchTermAndGenre(searchTerm, genreId);
+    if (!withoutArtist && !hasSearch && !hasGenre && !facets) {
+        if (cursor != null || limit != null) {
+            int size = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+            List<SongSummary> page = songRepository.findSummariesAfter(
+                    cursor == null ? Integer.MIN_VALUE : cursor, Limit.of(size));
+            ResponseEntity.BodyBuilder response = catalogVersions.ok(etag);
+            if (page.size() == size) {
+                response.header(NEXT_CURSOR_HEADER, String.valueOf(page.get(page.size() - 1).getSongID()));
+            }
+            return response.body(page);
+        }
+        return catalogVersions.ok(etag).body(songRepository.findAllSummaries());
+    }
+
+    // Filters and facet counts come from the in-memory indexes, the database only loads the hits
+    if (songSearchIndex.isReady() && facetIndex.isReady()) {
+        IntBitmap matches = hasSearch ? IntBitmap.of(songSearchIndex.search(searchTerm)) : facetIndex.all();
+        if (hasGenre) {
+            matches = facetIndex.filterGenre(matches, genreId);
+        }
+        if (withoutArtist) {
+            matches = facetIndex.filterWithoutArtist(matches);
+        }
+        List<SongSummary> songs = findAllInOrder(matches.toArray());
+        return catalogVersions.ok(etag).body(facets ? Map.of("songs", songs, "facets", facetIndex.count(matches)) : songs);
+    }
+
+    // Indexes still building at startup
+    List<SongSummary> songs;
+    if (withoutArtist) {
+        songs = songRepository.findSongsWithoutArtistButHasGenre();
+    } else if (hasSearch || hasGenre) {
+        songs = songRepository.findBySearchKeyAndGenre(hasSearch ? SearchKeys.fold(searchTerm) : null, genreId);
+    } else {
+        songs = songRepository.findAllSummaries();
     }
-    return songRepository.findAll();
+    return catalogVersions.ok(etag).body(facets ? Map.of("songs", songs, "facets", FacetCounts.of(songs)) : songs);
 }
 
+    // Stream the whole catalog as a JSON array without loading it into memory
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllSongs(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = catalogVersions.etag(CatalogVersions.Collection.SONGS);
+        if (catalogVersions.matches(ifNoneMatch, etag)) {
+            return catalogVersions.notModified(etag);
+        }
+        StreamingResponseBody body = songCatalogStreamer::writeAll;
+        return catalogVersions.ok(etag).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     // Get song by ID
     @GetMapping("/{id}")
-    public ResponseEntity<Song> getSongById(@PathVariable Integer id) {
-        return songRepository.findById(id)
+    public ResponseEntity<SongSummary> getSongById(@PathVariable Integer id) {
+        return songCache.get(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Songs that share playlists, favorites and listeners with this one, from memory
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<SimilarSong>> getSimilarSongs(@PathVariable Integer id,
+                                                             @RequestParam(defaultValue = "10") int limit) {
+        if (songCache.get(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        SongSimilarity.Neighbors neighbors = songSimilarity.neighbors(id);
+        List<SimilarSong> similar = new ArrayList<>();
+        for (int i = 0; i < neighbors.size() && similar.size() < limit; i++) {
+            float score = neighbors.scores()[i];
+            songCache.get(neighbors.songIds()[i]).ifPresent(song -> similar.add(new SimilarSong(score, song)));
+        }
+        return ResponseEntity.ok(similar);
+    }
+
+    // Audio bytes with Range support so the player can seek without re-downloading.
+    // Songs hosted elsewhere are redirected to their URL.
+    @GetMapping("/{id}/stream")
+    public ResponseEntity<Void> streamAudio(@PathVariable Integer id, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Optional<SongSummary> song = songCache.get(id);
+        if (song.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String audioFile = song.get().getAudioFile();
+        if (UploadsResolver.isRemote(audioFile)) {
+            return ResponseEntity.status(HttpStatus.FOUND).location(URI.create(audioFile)).build();
+        }
+        // The streamer checks the file itself, so a hot file costs no stat
+        Path file = uploadsResolver.locate(audioFile);
+        if (file == null || !audioStreamer.stream(file, request, response)) {
+            return ResponseEntity.notFound().build();
+        }
+        return null; // response already written
+    }
+
+    // Waveform peaks of the song's audio in the binary format described in AudioAnalyzer.
+    // 404 until the analysis has run.
+    @GetMapping("/{id}/peaks")
+    public ResponseEntity<Resource> getPeaks(@PathVariable Integer id) throws IOException {
+        Optional<SongSummary> song = songCache.get(id);
+        if (song.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Path peaks = audioAnalysisPipeline.peaksFile(song.get().getAudioFile());
+        if (peaks == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(new FileSystemResource(peaks));
+    }
+
+    // Upload the song's audio as multipart "file". Files are stored by content hash,
+    // so identical uploads share one copy.
+    @PostMapping(value = "/{id}/audio", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StoredAudio> uploadAudio(@PathVariable Integer id,
+            @RequestParam("file") MultipartFile file) throws IOException {
+        String extension = AudioStore.extensionOf(file.getOriginalFilename());
+        if (extension == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        try (InputStream in = file.getInputStream()) {
+            return attachAudio(id, in, extension);
+        }
+    }
+
+    // Same with the file as the raw request body, read straight from the socket
+    @PutMapping(value = "/{id}/audio", consumes = { "audio/*", MediaType.APPLICATION_OCTET_STREAM_VALUE })
+    public ResponseEntity<StoredAudio> putAudio(@PathVariable Integer id,
+            @RequestParam(required = false) String filename,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) throws IOException {
+        String extension = filename != null ? AudioStore.extensionOf(filename) : AudioStore.extensionOf(contentType);
+        if (extension == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return attachAudio(id, body, extension);
+    }
+
     // Create a new song with an audio URL
     @PostMapping
     public ResponseEntity<Song> createSong(@RequestBody Song song) {
@@ -85,9 +297,22 @@ public List<Song> getAllSongs(
             return ResponseEntity.badRequest().build();
         }
         Song savedSong = songRepository.save(song);
+        publish(CatalogChangedEvent.Action.CREATED, savedSong.getSongID(), savedSong);
         return ResponseEntity.ok(savedSong);
     }
 
+    // Bulk import, one song per line: NDJSON objects or CSV with a header row.
+    // Artists, albums and genres are matched by name and created when missing.
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    public ResponseEntity<ImportReport> importSongsNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(catalogImporter.importNdjson(body));
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ImportReport> importSongsCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(catalogImporter.importCsv(body));
+    }
+
     // Update an existing song
     @PutMapping("/{id}")
     public ResponseEntity<Song> updateSong(@PathVariable Integer id, @RequestBody Song songDetails) {
@@ -107,6 +332,7 @@ public List<Song> getAllSongs(
         existingSong.setReleaseDate(songDetails.getReleaseDate());
         existingSong.setAudioFile(songDetails.getAudioFile());
         Song updated = songRepository.save(existingSong);
+        publish(CatalogChangedEvent.Action.UPDATED, updated.getSongID(), updated);
         return ResponseEntity.ok(updated);
     }
 
@@ -117,9 +343,41 @@ public List<Song> getAllSongs(
             return ResponseEntity.notFound().build();
         }
         songRepository.deleteById(id);
+        publish(CatalogChangedEvent.Action.DELETED, id, null);
         return ResponseEntity.noContent().build();
     }
 
+    private ResponseEntity<StoredAudio> attachAudio(Integer id, InputStream in, String extension) throws IOException {
+        Optional<Song> songOpt = songRepository.findById(id);
+        if (songOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        StoredAudio stored = audioStore.store(in, extension);
+        Song song = songOpt.get();
+        song.setAudioFile(stored.getPath());
+        Song updated = songRepository.save(song);
+        publish(CatalogChangedEvent.Action.UPDATED, updated.getSongID(), updated);
+        return ResponseEntity.ok(stored);
+    }
+
+    // Load songs by id, keeping the id order of the index
+    private List<SongSummary> findAllInOrder(int[] ids) {
+        List<SongSummary> songs = new ArrayList<>(ids.length);
+        for (int from = 0; from < ids.length; from += ID_BATCH) {
+            List<Integer> batch = new ArrayList<>(Math.min(ID_BATCH, ids.length - from));
+            for (int i = from; i < Math.min(from + ID_BATCH, ids.length); i++) {
+                batch.add(ids[i]);
+            }
+            songs.addAll(songRepository.findSummariesByIdIn(batch));
+        }
+        songs.sort(Comparator.comparing(SongSummary::getSongID));
+        return songs;
+    }
+
+    private void publish(CatalogChangedEvent.Action action, Integer id, Song song) {
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.SONG, action, id, song));
+    }
+
     // Validate related entities exist
     private boolean validateRelations(Song song) {
         if (song.getArtist() != null && !artistRepository.existsById(song.getArtist().getArtistID())) {
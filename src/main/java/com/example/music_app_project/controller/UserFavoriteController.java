@@ -1,23 +1,32 @@
 package com.example.music_app_project.controller;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.music_app_project.event.CollectionChangedEvent;
 import com.example.music_app_project.model.UserFavorite;
 import com.example.music_app_project.model.UserFavoriteId;
 import com.example.music_app_project.repository.SongRepository;
 import com.example.music_app_project.repository.UserFavoriteRepository;
 import com.example.music_app_project.repository.UserRepository;
+import com.example.music_app_project.service.ActivityExporter;
 
 @RestController
 @RequestMapping("/api/user-favorites")
@@ -32,12 +41,30 @@ public class UserFavoriteController {
     @Autowired
     private SongRepository songRepository;
 
+    @Autowired
+    private ActivityExporter activityExporter;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // Get all favorites
     @GetMapping
     public List<UserFavorite> getAllFavorites() {
         return userFavoriteRepository.findAll();
     }
 
+    // Flat export: format=ndjson|csv, optional userId and from/to days (inclusive);
+    // gzip-compressed when the client sends Accept-Encoding: gzip
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportFavorites(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) Integer userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return activityExporter.export(ActivityExporter.Dataset.FAVORITES, format, userId, from, to, acceptEncoding);
+    }
+
     // Get all favorite songs by a user
     @GetMapping("/user/{userId}") // Đã đổi tên path variable từ userID thành userId
     public List<UserFavorite> getFavoritesByUser(@PathVariable Integer userId) {
@@ -62,6 +89,8 @@ public class UserFavoriteController {
 
         favorite.setFavoritedAt(LocalDateTime.now());
         UserFavorite saved = userFavoriteRepository.save(favorite);
+        eventPublisher.publishEvent(new CollectionChangedEvent(CollectionChangedEvent.Type.FAVORITES,
+                CollectionChangedEvent.Action.ADDED, favorite.getUser().getId(), favorite.getSong().getSongID()));
         return ResponseEntity.ok(saved);
     }
 
@@ -76,6 +105,8 @@ public class UserFavoriteController {
         }
 
         userFavoriteRepository.deleteById(id);
+        eventPublisher.publishEvent(new CollectionChangedEvent(CollectionChangedEvent.Type.FAVORITES,
+                CollectionChangedEvent.Action.REMOVED, userId, songID));
         return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,48 @@
+package com.example.music_app_project.dto;
+
+import java.time.LocalDate;
+
+// Album with a slim artist, loaded by one joined query
+public class AlbumSummary {
+
+    private final Integer albumID;
+    private final String title;
+    private final LocalDate releaseDate;
+    private final String coverImage;
+    private final ArtistSummary artist;
+
+    public AlbumSummary(Integer albumID, String title, LocalDate releaseDate, String coverImage, ArtistSummary artist) {
+        this.albumID = albumID;
+        this.title = title;
+        this.releaseDate = releaseDate;
+        this.coverImage = coverImage;
+        this.artist = artist;
+    }
+
+    // Flat form for JPQL constructor expressions
+    public AlbumSummary(Integer albumID, String title, LocalDate releaseDate, String coverImage,
+                        Integer artistID, String artistName, String artistCountry, LocalDate artistBirthDate) {
+        this(albumID, title, releaseDate, coverImage,
+                artistID != null ? new ArtistSummary(artistID, artistName, artistCountry, artistBirthDate) : null);
+    }
+
+    public Integer getAlbumID() {
+        return albumID;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public LocalDate getReleaseDate() {
+        return releaseDate;
+    }
+
+    public String getCoverImage() {
+        return coverImage;
+    }
+
+    public ArtistSummary getArtist() {
+        return artist;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.music_app_project.dto;
+
+import java.time.LocalDate;
+
+// Artist without its bio, for lists and for nesting inside songs and albums
+public class ArtistSummary {
+
+    private final Integer artistID;
+    private final String name;
+    private final String country;
+    private final LocalDate birthDate;
+
+    public ArtistSummary(Integer artistID, String name, String country, LocalDate birthDate) {
+        this.artistID = artistID;
+        this.name = name;
+        this.country = country;
+        this.birthDate = birthDate;
+    }
+
+    public Integer getArtistID() {
+        return artistID;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public LocalDate getBirthDate() {
+        return birthDate;
+    }
+}
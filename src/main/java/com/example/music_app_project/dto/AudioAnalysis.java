@@ -0,0 +1,40 @@
+package com.example.music_app_project.dto;
+
+// Measurements of one audio file: exact length, integrated loudness and a
+// downsampled waveform. Peaks are the largest absolute sample per bucket,
+// scaled to 0..255.
+public class AudioAnalysis {
+
+    private final long durationMs;
+    private final Double loudness; // LUFS to 0.01, null for silence
+    private final float bucketSeconds;
+    private final byte[] peaks;
+
+    public AudioAnalysis(long durationMs, Double loudness, float bucketSeconds, byte[] peaks) {
+        this.durationMs = durationMs;
+        this.loudness = loudness == null || loudness.isNaN() ? null : Math.round(loudness * 100) / 100.0;
+        this.bucketSeconds = bucketSeconds;
+        this.peaks = peaks;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    // Song.duration is stored in whole seconds
+    public Integer getDurationSeconds() {
+        return (int) Math.round(durationMs / 1000.0);
+    }
+
+    public Double getLoudness() {
+        return loudness;
+    }
+
+    public float getBucketSeconds() {
+        return bucketSeconds;
+    }
+
+    public byte[] getPeaks() {
+        return peaks;
+    }
+}
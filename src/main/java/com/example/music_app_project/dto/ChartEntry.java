@@ -0,0 +1,27 @@
+package com.example.music_app_project.dto;
+
+// One row of a play chart: the song, artist or genre and its play count
+public class ChartEntry<T> {
+
+    private final int rank;
+    private final long plays;
+    private final T item;
+
+    public ChartEntry(int rank, long plays, T item) {
+        this.rank = rank;
+        this.plays = plays;
+        this.item = item;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public long getPlays() {
+        return plays;
+    }
+
+    public T getItem() {
+        return item;
+    }
+}
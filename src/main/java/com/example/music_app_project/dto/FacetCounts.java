@@ -0,0 +1,65 @@
+package com.example.music_app_project.dto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+
+// Per-facet hit counts for a song result set, keyed by genre/artist/album id
+public class FacetCounts {
+
+    private final Map<Integer, Integer> genre = new TreeMap<>();
+    private final Map<Integer, Integer> artist = new TreeMap<>();
+    private final Map<Integer, Integer> album = new TreeMap<>();
+    private int withoutGenre;
+    private int withoutArtist;
+
+    // Counts over already loaded songs, used while the facet index is still building
+    public static FacetCounts of(List<SongSummary> songs) {
+        FacetCounts counts = new FacetCounts();
+        for (SongSummary song : songs) {
+            if (song.getGenre() != null) {
+                counts.genre.merge(song.getGenre().getGenreID(), 1, Integer::sum);
+            } else {
+                counts.withoutGenre++;
+            }
+            if (song.getArtist() != null) {
+                counts.artist.merge(song.getArtist().getArtistID(), 1, Integer::sum);
+            } else {
+                counts.withoutArtist++;
+            }
+            if (song.getAlbum() != null) {
+                counts.album.merge(song.getAlbum().getAlbumID(), 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    public Map<Integer, Integer> getGenre() {
+        return genre;
+    }
+
+    public Map<Integer, Integer> getArtist() {
+        return artist;
+    }
+
+    public Map<Integer, Integer> getAlbum() {
+        return album;
+    }
+
+    public int getWithoutGenre() {
+        return withoutGenre;
+    }
+
+    public void setWithoutGenre(int withoutGenre) {
+        this.withoutGenre = withoutGenre;
+    }
+
+    public int getWithoutArtist() {
+        return withoutArtist;
+    }
+
+    public void setWithoutArtist(int withoutArtist) {
+        this.withoutArtist = withoutArtist;
+    }
+}
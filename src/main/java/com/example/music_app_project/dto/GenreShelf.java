@@ -0,0 +1,23 @@
+package com.example.music_app_project.dto;
+
+import java.util.List;
+
+// Most played songs of one of the user's favorite genres
+public class GenreShelf {
+
+    private final GenreSummary genre;
+    private final List<SongSummary> songs;
+
+    public GenreShelf(GenreSummary genre, List<SongSummary> songs) {
+        this.genre = genre;
+        this.songs = songs;
+    }
+
+    public GenreSummary getGenre() {
+        return genre;
+    }
+
+    public List<SongSummary> getSongs() {
+        return songs;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.music_app_project.dto;
+
+// Genre as nested inside a song, same JSON shape as the Genre entity
+public class GenreSummary {
+
+    private final Integer genreID;
+    private final String genreName;
+
+    public GenreSummary(Integer genreID, String genreName) {
+        this.genreID = genreID;
+        this.genreName = genreName;
+    }
+
+    public Integer getGenreID() {
+        return genreID;
+    }
+
+    public String getGenreName() {
+        return genreName;
+    }
+}
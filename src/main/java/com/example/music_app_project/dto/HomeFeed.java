@@ -0,0 +1,49 @@
+package com.example.music_app_project.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Everything the home view shows for one user, built ahead of time
+public class HomeFeed {
+
+    private final int userId;
+    private final LocalDateTime builtAt;
+    private final List<SongSummary> recentlyPlayed;
+    private final List<SongSummary> becauseYouLiked;
+    private final List<GenreShelf> topInYourGenres;
+    private final List<SongSummary> newReleases;
+
+    public HomeFeed(int userId, LocalDateTime builtAt, List<SongSummary> recentlyPlayed,
+                    List<SongSummary> becauseYouLiked, List<GenreShelf> topInYourGenres, List<SongSummary> newReleases) {
+        this.userId = userId;
+        this.builtAt = builtAt;
+        this.recentlyPlayed = recentlyPlayed;
+        this.becauseYouLiked = becauseYouLiked;
+        this.topInYourGenres = topInYourGenres;
+        this.newReleases = newReleases;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public LocalDateTime getBuiltAt() {
+        return builtAt;
+    }
+
+    public List<SongSummary> getRecentlyPlayed() {
+        return recentlyPlayed;
+    }
+
+    public List<SongSummary> getBecauseYouLiked() {
+        return becauseYouLiked;
+    }
+
+    public List<GenreShelf> getTopInYourGenres() {
+        return topInYourGenres;
+    }
+
+    public List<SongSummary> getNewReleases() {
+        return newReleases;
+    }
+}
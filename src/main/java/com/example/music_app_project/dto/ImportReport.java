@@ -0,0 +1,87 @@
+package com.example.music_app_project.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Outcome of a bulk import. Line numbers are 1-based and count the CSV header.
+public class ImportReport {
+
+    public static class RowError {
+        private final long line;
+        private final String message;
+
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    private long imported;
+    private long failed;
+    private int artistsCreated;
+    private int albumsCreated;
+    private int genresCreated;
+    private long elapsedMs;
+    // Only the first errors are kept, failed counts all of them
+    private final List<RowError> errors = new ArrayList<>();
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public int getArtistsCreated() {
+        return artistsCreated;
+    }
+
+    public void setArtistsCreated(int artistsCreated) {
+        this.artistsCreated = artistsCreated;
+    }
+
+    public int getAlbumsCreated() {
+        return albumsCreated;
+    }
+
+    public void setAlbumsCreated(int albumsCreated) {
+        this.albumsCreated = albumsCreated;
+    }
+
+    public int getGenresCreated() {
+        return genresCreated;
+    }
+
+    public void setGenresCreated(int genresCreated) {
+        this.genresCreated = genresCreated;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+}
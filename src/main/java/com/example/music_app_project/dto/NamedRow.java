@@ -0,0 +1,8 @@
+package com.example.music_app_project.dto;
+
+// Id and display name of a catalog row (artist name, album title)
+public interface NamedRow {
+    Integer getId();
+
+    String getName();
+}
@@ -0,0 +1,23 @@
+package com.example.music_app_project.dto;
+
+import java.time.LocalDateTime;
+
+// One entry of a user's recently played list
+public class RecentPlay {
+
+    private final SongSummary song;
+    private final LocalDateTime playedAt;
+
+    public RecentPlay(SongSummary song, LocalDateTime playedAt) {
+        this.song = song;
+        this.playedAt = playedAt;
+    }
+
+    public SongSummary getSong() {
+        return song;
+    }
+
+    public LocalDateTime getPlayedAt() {
+        return playedAt;
+    }
+}
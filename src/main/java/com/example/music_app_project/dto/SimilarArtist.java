@@ -0,0 +1,22 @@
+package com.example.music_app_project.dto;
+
+// An artist whose fans overlap with the requested one; similarity is the
+// estimated Jaccard similarity of the users and playlists around their songs
+public class SimilarArtist {
+
+    private final double similarity;
+    private final ArtistSummary artist;
+
+    public SimilarArtist(double similarity, ArtistSummary artist) {
+        this.similarity = similarity;
+        this.artist = artist;
+    }
+
+    public double getSimilarity() {
+        return similarity;
+    }
+
+    public ArtistSummary getArtist() {
+        return artist;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.music_app_project.dto;
+
+// A song similar to the requested one; score is the cosine similarity of the
+// playlists, favorites and listening histories the two appear in
+public class SimilarSong {
+
+    private final double score;
+    private final SongSummary song;
+
+    public SimilarSong(double score, SongSummary song) {
+        this.score = score;
+        this.song = song;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public SongSummary getSong() {
+        return song;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.music_app_project.dto;
+
+// Minimal columns needed to build the in-memory song indexes
+public interface SongIndexRow {
+    Integer getSongID();
+
+    String getTitle();
+
+    Integer getArtistID();
+
+    Integer getAlbumID();
+
+    Integer getGenreID();
+}
@@ -0,0 +1,76 @@
+package com.example.music_app_project.dto;
+
+import java.time.LocalDate;
+
+// Read model of a song with its artist, album and genre resolved by joins in
+// the same query (SongRepository.SUMMARY_SELECT), so listing songs costs one
+// statement instead of N+1 selects. Keeps the JSON shape of the Song entity
+// minus artist bios.
+public class SongSummary {
+
+    private final Integer songID;
+    private final String title;
+    private final ArtistSummary artist;
+    private final AlbumSummary album;
+    private final GenreSummary genre;
+    private final Integer duration;
+    private final Double loudness;
+    private final LocalDate releaseDate;
+    private final String audioFile;
+
+    // Flat form for JPQL constructor expressions
+    public SongSummary(Integer songID, String title, Integer duration, Double loudness, LocalDate releaseDate, String audioFile,
+                       Integer artistID, String artistName, String artistCountry, LocalDate artistBirthDate,
+                       Integer albumID, String albumTitle, LocalDate albumReleaseDate, String albumCoverImage,
+                       Integer albumArtistID, String albumArtistName, String albumArtistCountry, LocalDate albumArtistBirthDate,
+                       Integer genreID, String genreName) {
+        this.songID = songID;
+        this.title = title;
+        this.duration = duration;
+        this.loudness = loudness;
+        this.releaseDate = releaseDate;
+        this.audioFile = audioFile;
+        this.artist = artistID != null ? new ArtistSummary(artistID, artistName, artistCountry, artistBirthDate) : null;
+        this.album = albumID != null
+                ? new AlbumSummary(albumID, albumTitle, albumReleaseDate, albumCoverImage,
+                        albumArtistID, albumArtistName, albumArtistCountry, albumArtistBirthDate)
+                : null;
+        this.genre = genreID != null ? new GenreSummary(genreID, genreName) : null;
+    }
+
+    public Integer getSongID() {
+        return songID;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public ArtistSummary getArtist() {
+        return artist;
+    }
+
+    public AlbumSummary getAlbum() {
+        return album;
+    }
+
+    public GenreSummary getGenre() {
+        return genre;
+    }
+
+    public Integer getDuration() {
+        return duration;
+    }
+
+    public Double getLoudness() {
+        return loudness;
+    }
+
+    public LocalDate getReleaseDate() {
+        return releaseDate;
+    }
+
+    public String getAudioFile() {
+        return audioFile;
+    }
+}
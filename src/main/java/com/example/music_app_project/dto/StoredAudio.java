@@ -0,0 +1,33 @@
+package com.example.music_app_project.dto;
+
+// Result of an audio upload: the content-addressed path now in Song.audioFile
+public class StoredAudio {
+
+    private final String path;
+    private final String sha256;
+    private final long size;
+    private final boolean deduplicated; // identical bytes were already stored
+
+    public StoredAudio(String path, String sha256, long size, boolean deduplicated) {
+        this.path = path;
+        this.sha256 = sha256;
+        this.size = size;
+        this.deduplicated = deduplicated;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public boolean isDeduplicated() {
+        return deduplicated;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.music_app_project.dto;
+
+// One typeahead completion returned by /api/search/suggest
+public class Suggestion {
+
+    public enum Type {
+        SONG, ARTIST, ALBUM
+    }
+
+    private final Type type;
+    private final Integer id;
+    private final String text;
+    private final long popularity;
+
+    public Suggestion(Type type, Integer id, String text, long popularity) {
+        this.type = type;
+        this.id = id;
+        this.text = text;
+        this.popularity = popularity;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public long getPopularity() {
+        return popularity;
+    }
+}
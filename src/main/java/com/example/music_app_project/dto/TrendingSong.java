@@ -0,0 +1,34 @@
+package com.example.music_app_project.dto;
+
+// A trending song: score is its recent play rate over its baseline rate,
+// recentPlays the decayed count of its latest plays
+public class TrendingSong {
+
+    private final int rank;
+    private final double score;
+    private final double recentPlays;
+    private final SongSummary song;
+
+    public TrendingSong(int rank, double score, double recentPlays, SongSummary song) {
+        this.rank = rank;
+        this.score = score;
+        this.recentPlays = recentPlays;
+        this.song = song;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public double getRecentPlays() {
+        return recentPlays;
+    }
+
+    public SongSummary getSong() {
+        return song;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.music_app_project.event;
+
+// Published by the catalog controllers after a write has been committed,
+// so in-memory indexes can follow the database without polling it.
+public class CatalogChangedEvent {
+
+    public enum Type {
+        SONG, ARTIST, ALBUM, GENRE
+    }
+
+    public enum Action {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Type type;
+    private final Action action;
+    private final Integer id;
+    private final Object entity; // null for DELETED
+
+    public CatalogChangedEvent(Type type, Action action, Integer id, Object entity) {
+        this.type = type;
+        this.action = action;
+        this.id = id;
+        this.entity = entity;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public Object getEntity() {
+        return entity;
+    }
+}
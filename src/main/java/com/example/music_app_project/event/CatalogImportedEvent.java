@@ -0,0 +1,34 @@
+package com.example.music_app_project.event;
+
+// Published once after a bulk import has committed. Imported rows are not
+// announced one by one, so in-memory indexes rebuild from the database instead.
+public class CatalogImportedEvent {
+
+    private final long songs;
+    private final int artists;
+    private final int albums;
+    private final int genres;
+
+    public CatalogImportedEvent(long songs, int artists, int albums, int genres) {
+        this.songs = songs;
+        this.artists = artists;
+        this.albums = albums;
+        this.genres = genres;
+    }
+
+    public long getSongs() {
+        return songs;
+    }
+
+    public int getArtists() {
+        return artists;
+    }
+
+    public int getAlbums() {
+        return albums;
+    }
+
+    public int getGenres() {
+        return genres;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.music_app_project.event;
+
+// Published after a song is added to or removed from a playlist or a user's
+// favorites. ownerId is the playlist id or the user id.
+public class CollectionChangedEvent {
+
+    public enum Type {
+        PLAYLIST, FAVORITES
+    }
+
+    public enum Action {
+        ADDED, REMOVED
+    }
+
+    private final Type type;
+    private final Action action;
+    private final int ownerId;
+    private final int songId;
+
+    public CollectionChangedEvent(Type type, Action action, int ownerId, int songId) {
+        this.type = type;
+        this.action = action;
+        this.ownerId = ownerId;
+        this.songId = songId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public int getOwnerId() {
+        return ownerId;
+    }
+
+    public int getSongId() {
+        return songId;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.music_app_project.event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Published after play history rows have been written, one event per batch,
+// so in-memory play statistics can follow without reading the table back.
+public class PlaysRecordedEvent {
+
+    public record Play(int userId, int songId, LocalDateTime playedAt) {
+    }
+
+    private final List<Play> plays;
+
+    public PlaysRecordedEvent(List<Play> plays) {
+        this.plays = plays;
+    }
+
+    public List<Play> getPlays() {
+        return plays;
+    }
+}
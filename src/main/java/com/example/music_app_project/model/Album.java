@@ -3,8 +3,11 @@ package com.example.music_app_project.model;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 
+import com.example.music_app_project.util.SearchKeys;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 @Entity
-@Table(name = "Albums")
+@Table(name = "Albums", indexes = @Index(name = "idx_albums_title_key", columnList = "titleKey"))
 public class Album {
 
     @Id
@@ -23,6 +26,11 @@ public class Album {
     @Column(length = 255)
     private String coverImage;
 
+    // Diacritic-folded, lower-cased title used for accent-insensitive lookups
+    @JsonIgnore
+    @Column(length = 100)
+    private String titleKey;
+
     // Getters and Setters
     // AlbumID
 
@@ -69,4 +77,15 @@ public class Album {
     public void setCoverImage(String coverImage) {
         this.coverImage = coverImage;
     }
+
+    // TitleKey
+    public String getTitleKey() {
+        return titleKey;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void updateSearchKey() {
+        this.titleKey = SearchKeys.fold(title);
+    }
 }
@@ -7,10 +7,16 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 
+import com.example.music_app_project.util.SearchKeys;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 @Entity
-@Table(name = "Artists")
+@Table(name = "Artists", indexes = @Index(name = "idx_artists_name_key", columnList = "nameKey"))
 public class Artist {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -27,6 +33,11 @@ public class Artist {
 
     private LocalDate birthDate;
 
+    // Diacritic-folded, lower-cased name used for accent-insensitive lookups
+    @JsonIgnore
+    @Column(length = 100)
+    private String nameKey;
+
     // Getters and setters
     // artistID
     public Integer getArtistID() {
@@ -72,4 +83,15 @@ public class Artist {
     public void setBirthDate(LocalDate birthDate) {
         this.birthDate = birthDate;
     }
+
+    // nameKey
+    public String getNameKey() {
+        return nameKey;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void updateSearchKey() {
+        this.nameKey = SearchKeys.fold(name);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.example.music_app_project.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// A user's precomputed home feed, as gzip-compressed JSON
+@Entity
+@Table(name = "HomeFeed")
+public class HomeFeedBlob {
+
+    @Id
+    @Column(name = "userID")
+    private Integer userId;
+
+    @Column(nullable = false, length = 1048576)
+    private byte[] payload;
+
+    private LocalDateTime builtAt;
+
+    public HomeFeedBlob() {}
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public LocalDateTime getBuiltAt() {
+        return builtAt;
+    }
+}
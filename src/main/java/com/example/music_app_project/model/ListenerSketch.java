@@ -0,0 +1,54 @@
+package com.example.music_app_project.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+// Serialized HyperLogLog of the users who played a song or an artist's songs,
+// per day (bucket = epoch day) or over all time (bucket = -1)
+@Entity
+@Table(name = "ListenerSketch")
+@IdClass(ListenerSketchId.class)
+public class ListenerSketch {
+
+    @Id
+    private Integer kind;
+
+    @Id
+    @Column(name = "itemID")
+    private Integer itemId;
+
+    @Id
+    private Integer bucket;
+
+    @Column(nullable = false, length = 8192)
+    private byte[] registers;
+
+    private LocalDateTime updatedAt;
+
+    public ListenerSketch() {}
+
+    public Integer getKind() {
+        return kind;
+    }
+
+    public Integer getItemId() {
+        return itemId;
+    }
+
+    public Integer getBucket() {
+        return bucket;
+    }
+
+    public byte[] getRegisters() {
+        return registers;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
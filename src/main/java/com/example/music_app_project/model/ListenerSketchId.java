@@ -0,0 +1,45 @@
+package com.example.music_app_project.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+public class ListenerSketchId implements Serializable {
+    private Integer kind;
+    private Integer itemId;
+    private Integer bucket;
+
+    public ListenerSketchId() {}
+
+    public ListenerSketchId(Integer kind, Integer itemId, Integer bucket) {
+        this.kind = kind;
+        this.itemId = itemId;
+        this.bucket = bucket;
+    }
+
+    public Integer getKind() {
+        return kind;
+    }
+
+    public Integer getItemId() {
+        return itemId;
+    }
+
+    public Integer getBucket() {
+        return bucket;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ListenerSketchId that = (ListenerSketchId) o;
+        return Objects.equals(kind, that.kind) &&
+               Objects.equals(itemId, that.itemId) &&
+               Objects.equals(bucket, that.bucket);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, itemId, bucket);
+    }
+}
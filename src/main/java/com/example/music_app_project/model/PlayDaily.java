@@ -0,0 +1,51 @@
+package com.example.music_app_project.model;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Plays per user, song and day, rolled up from PlayHistory so raw rows can be
+// purged after the retention period. Plain id columns, no foreign keys, so
+// deleting a user or song never has to touch old aggregates.
+@Entity
+@Table(name = "PlayDaily", indexes = @Index(name = "idx_play_daily_date", columnList = "playDate, songID, plays"))
+@IdClass(PlayDailyId.class)
+public class PlayDaily {
+
+    @Id
+    @Column(name = "userID")
+    private Integer userId;
+
+    @Id
+    @Column(name = "songID")
+    private Integer songId;
+
+    @Id
+    private LocalDate playDate;
+
+    @Column(nullable = false)
+    private Integer plays;
+
+    public PlayDaily() {}
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public Integer getSongId() {
+        return songId;
+    }
+
+    public LocalDate getPlayDate() {
+        return playDate;
+    }
+
+    public Integer getPlays() {
+        return plays;
+    }
+}
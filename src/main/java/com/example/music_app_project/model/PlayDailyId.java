@@ -0,0 +1,46 @@
+package com.example.music_app_project.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+public class PlayDailyId implements Serializable {
+    private Integer userId;
+    private Integer songId;
+    private LocalDate playDate;
+
+    public PlayDailyId() {}
+
+    public PlayDailyId(Integer userId, Integer songId, LocalDate playDate) {
+        this.userId = userId;
+        this.songId = songId;
+        this.playDate = playDate;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public Integer getSongId() {
+        return songId;
+    }
+
+    public LocalDate getPlayDate() {
+        return playDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PlayDailyId that = (PlayDailyId) o;
+        return Objects.equals(userId, that.userId) &&
+               Objects.equals(songId, that.songId) &&
+               Objects.equals(playDate, that.playDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, songId, playDate);
+    }
+}
@@ -3,8 +3,16 @@ package com.example.music_app_project.model;
 import jakarta.persistence.*;
 import java.time.*;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+// Rows are partitioned by month through playedMonth: both indexes lead with a
+// key that keeps range scans, rollups and purges inside the months they touch,
+// and carry the remaining columns so those queries never read the table rows.
 @Entity
-@Table(name = "PlayHistory")
+@Table(name = "PlayHistory", indexes = {
+        @Index(name = "idx_play_history_month", columnList = "playedMonth, playedAt, userID, songID"),
+        @Index(name = "idx_play_history_user", columnList = "userID, historyID, songID, playedAt")
+})
 public class PlayHistory {
 
     @Id
@@ -21,9 +29,18 @@ public class PlayHistory {
 
     private LocalDateTime playedAt;
 
+    // Partition key, yyyymm of playedAt
+    @JsonIgnore
+    private Integer playedMonth;
+
     @PrePersist
     protected void onCreate() {
         this.playedAt = LocalDateTime.now();
+        this.playedMonth = monthOf(playedAt);
+    }
+
+    public static int monthOf(LocalDateTime time) {
+        return time.getYear() * 100 + time.getMonthValue();
     }
 
     // Getters and Setters
@@ -62,4 +79,9 @@ public class PlayHistory {
     public void setPlayedAt(LocalDateTime playedAt) {
         this.playedAt = playedAt;
     }
+
+    // playedMonth
+    public Integer getPlayedMonth() {
+        return playedMonth;
+    }
 }
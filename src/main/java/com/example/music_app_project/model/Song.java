@@ -4,8 +4,11 @@ import jakarta.persistence.*;
 
 import java.time.*;
 
+import com.example.music_app_project.util.SearchKeys;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 @Entity
-@Table(name = "Songs")
+@Table(name = "Songs", indexes = @Index(name = "idx_songs_title_key", columnList = "titleKey"))
 public class Song {
 
     @Id
@@ -29,10 +32,18 @@ public class Song {
 
     private Integer duration;
 
+    // Integrated loudness in LUFS, measured by the audio analysis pipeline
+    private Double loudness;
+
     private LocalDate releaseDate;
 
     @Column(length = 255)
     private String audioFile;
+
+    // Diacritic-folded, lower-cased title used for accent-insensitive lookups
+    @JsonIgnore
+    @Column(length = 100)
+    private String titleKey;
     
     // Thêm constructor mặc định (không tham số) - bắt buộc cho Jackson
     public Song() {
@@ -99,6 +110,14 @@ public class Song {
         this.duration = duration;
 }
 
+    public Double getLoudness() {
+        return loudness;
+    }
+
+    public void setLoudness(Double loudness) {
+        this.loudness = loudness;
+    }
+
     public LocalDate getReleaseDate() {
         return releaseDate;
 }
@@ -114,4 +133,14 @@ public class Song {
     public void setAudioFile(String audioFile) {
         this.audioFile = audioFile;
     }
+
+    public String getTitleKey() {
+        return titleKey;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void updateSearchKey() {
+        this.titleKey = SearchKeys.fold(title);
+    }
 }
\ No newline at end of file
@@ -1,8 +1,34 @@
 package com.example.music_app_project.repository;
 
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.repository.query.Param;
+
+import com.example.music_app_project.dto.AlbumSummary;
+import com.example.music_app_project.dto.NamedRow;
 import com.example.music_app_project.model.Album;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface AlbumRepository extends JpaRepository<Album, Integer> {
+
+    // Album with its artist in one joined query
+    String SUMMARY_SELECT = "SELECT new com.example.music_app_project.dto.AlbumSummary(" +
+            "al.albumID, al.title, al.releaseDate, al.coverImage, ar.artistID, ar.name, ar.country, ar.birthDate) " +
+            "FROM Album al LEFT JOIN al.artist ar ";
+
     boolean existsByTitle(String title);
+
+    @Query("SELECT al.albumID AS id, al.title AS name FROM Album al")
+    List<NamedRow> findNamedRows();
+
+    // Prefix match on the folded title as a range scan of its index
+    @Query(SUMMARY_SELECT + "WHERE al.titleKey >= :from AND al.titleKey < :to ORDER BY al.titleKey")
+    List<AlbumSummary> findByTitleKeyRange(@Param("from") String from, @Param("to") String to, Limit limit);
+
+    List<Album> findByTitleKeyIsNull();
+
+    @Query(SUMMARY_SELECT + "ORDER BY al.albumID")
+    List<AlbumSummary> findAllSummaries();
 }
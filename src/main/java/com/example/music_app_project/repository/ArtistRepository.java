@@ -1,8 +1,35 @@
 package com.example.music_app_project.repository;
 
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.repository.query.Param;
+
+import com.example.music_app_project.dto.ArtistSummary;
+import com.example.music_app_project.dto.NamedRow;
 import com.example.music_app_project.model.Artist;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface ArtistRepository extends JpaRepository<Artist, Integer> {
     boolean existsByName(String name);
+
+    @Query("SELECT a.artistID AS id, a.name AS name FROM Artist a")
+    List<NamedRow> findNamedRows();
+
+    // Prefix match on the folded name as a range scan of its index
+    @Query("SELECT new com.example.music_app_project.dto.ArtistSummary(a.artistID, a.name, a.country, a.birthDate) " +
+           "FROM Artist a WHERE a.nameKey >= :from AND a.nameKey < :to ORDER BY a.nameKey")
+    List<ArtistSummary> findByNameKeyRange(@Param("from") String from, @Param("to") String to, Limit limit);
+
+    List<Artist> findByNameKeyIsNull();
+
+    @Query("SELECT new com.example.music_app_project.dto.ArtistSummary(a.artistID, a.name, a.country, a.birthDate) " +
+           "FROM Artist a ORDER BY a.artistID")
+    List<ArtistSummary> findAllSummaries();
+
+    @Query("SELECT new com.example.music_app_project.dto.ArtistSummary(a.artistID, a.name, a.country, a.birthDate) " +
+           "FROM Artist a WHERE a.artistID IN :ids")
+    List<ArtistSummary> findSummariesByIds(@Param("ids") Collection<Integer> ids);
 }
@@ -1,7 +1,26 @@
 package com.example.music_app_project.repository;
 
+import java.util.List;
+
 import com.example.music_app_project.model.PlayHistory;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface PlayHistoryRepository extends JpaRepository<PlayHistory, Integer> {
+
+    // Newest first, one page at a time, with user and song fetched in the same statement.
+    // The per-user variants walk idx_play_history_user.
+    @EntityGraph(attributePaths = { "user", "song.artist", "song.album.artist", "song.genre" })
+    List<PlayHistory> findAllByOrderByHistoryIDDesc(Limit limit);
+
+    @EntityGraph(attributePaths = { "user", "song.artist", "song.album.artist", "song.genre" })
+    List<PlayHistory> findByHistoryIDLessThanOrderByHistoryIDDesc(Integer before, Limit limit);
+
+    @EntityGraph(attributePaths = { "user", "song.artist", "song.album.artist", "song.genre" })
+    List<PlayHistory> findByUser_IdOrderByHistoryIDDesc(Integer userId, Limit limit);
+
+    @EntityGraph(attributePaths = { "user", "song.artist", "song.album.artist", "song.genre" })
+    List<PlayHistory> findByUser_IdAndHistoryIDLessThanOrderByHistoryIDDesc(Integer userId, Integer before, Limit limit);
 }
@@ -1,22 +1,89 @@
 package com.example.music_app_project.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.QueryHint;
+
+import com.example.music_app_project.dto.NamedRow;
+import com.example.music_app_project.dto.SongIndexRow;
+import com.example.music_app_project.dto.SongSummary;
 import com.example.music_app_project.model.Song;
 
 @Repository
 public interface SongRepository extends JpaRepository<Song, Integer> {
 
-    @Query("SELECT s FROM Song s " +
-           "WHERE (:searchTerm IS NULL OR :searchTerm = '' OR LOWER(s.title) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
-           "AND (:genreId IS NULL OR s.genre.genreID = :genreId OR (:genreId = -1 AND s.genre IS NULL))")
-    List<Song> findBySearchTermAndGenre(@Param("searchTerm") String searchTerm, @Param("genreId") Integer genreId);
+    // Song with artist, album (and its artist) and genre in one joined query
+    String SUMMARY_SELECT = "SELECT new com.example.music_app_project.dto.SongSummary(" +
+            "s.songID, s.title, s.duration, s.loudness, s.releaseDate, s.audioFile, " +
+            "ar.artistID, ar.name, ar.country, ar.birthDate, " +
+            "al.albumID, al.title, al.releaseDate, al.coverImage, " +
+            "alar.artistID, alar.name, alar.country, alar.birthDate, " +
+            "g.genreID, g.name) " +
+            "FROM Song s LEFT JOIN s.artist ar LEFT JOIN s.album al LEFT JOIN al.artist alar LEFT JOIN s.genre g ";
+
+    // searchKey must already be folded with SearchKeys.fold
+    @Query(SUMMARY_SELECT +
+           "WHERE (:searchKey IS NULL OR :searchKey = '' OR s.titleKey LIKE CONCAT('%', :searchKey, '%')) " +
+           "AND (:genreId IS NULL OR g.genreID = :genreId OR (:genreId = -1 AND g IS NULL)) " +
+           "ORDER BY s.songID")
+    List<SongSummary> findBySearchKeyAndGenre(@Param("searchKey") String searchKey, @Param("genreId") Integer genreId);
+
+    // Prefix match on the folded title as a range scan of idx_songs_title_key
+    @Query(SUMMARY_SELECT + "WHERE s.titleKey >= :from AND s.titleKey < :to ORDER BY s.titleKey")
+    List<SongSummary> findByTitleKeyRange(@Param("from") String from, @Param("to") String to, Limit limit);
+
+    List<Song> findByTitleKeyIsNull();
+
+    @Query(SUMMARY_SELECT + "WHERE ar IS NULL AND g IS NOT NULL ORDER BY s.songID")
+    List<SongSummary> findSongsWithoutArtistButHasGenre();
+
+    @Query(SUMMARY_SELECT + "ORDER BY s.songID")
+    List<SongSummary> findAllSummaries();
+
+    @Query(SUMMARY_SELECT + "WHERE s.songID = :id")
+    Optional<SongSummary> findSummaryById(@Param("id") Integer id);
+
+    @Query(SUMMARY_SELECT + "WHERE s.songID IN :ids ORDER BY s.songID")
+    List<SongSummary> findSummariesByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // Keyset page: songs after the given id, in id order
+    @Query(SUMMARY_SELECT + "WHERE s.songID > :after ORDER BY s.songID")
+    List<SongSummary> findSummariesAfter(@Param("after") Integer after, Limit limit);
+
+    // Forward-only cursor over the whole catalog, must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @Query(SUMMARY_SELECT + "ORDER BY s.songID")
+    Stream<SongSummary> streamAllSummaries();
+
+    @Query("SELECT s.songID AS songID, s.title AS title, ar.artistID AS artistID, al.albumID AS albumID, g.genreID AS genreID " +
+           "FROM Song s LEFT JOIN s.artist ar LEFT JOIN s.album al LEFT JOIN s.genre g")
+    List<SongIndexRow> findIndexRows();
+
+    // Songs whose audio has not been analyzed yet; name is the audioFile value
+    @Query("SELECT s.songID AS id, s.audioFile AS name FROM Song s WHERE s.loudness IS NULL AND s.audioFile IS NOT NULL")
+    List<NamedRow> findUnanalyzedAudio();
+
+    @Query("SELECT s.audioFile FROM Song s WHERE s.songID = :id")
+    Optional<String> findAudioFileById(@Param("id") Integer id);
 
-    @Query("SELECT s FROM Song s WHERE s.artist IS NULL AND s.genre IS NOT NULL")
-    List<Song> findSongsWithoutArtistButHasGenre();
-}
\ No newline at end of file
+    // No-op when the song has been pointed at another file in the meantime
+    @Modifying
+    @Transactional
+    @Query("UPDATE Song s SET s.duration = :duration, s.loudness = :loudness " +
+           "WHERE s.songID = :id AND s.audioFile = :audioFile")
+    int updateAnalysis(@Param("id") Integer id, @Param("audioFile") String audioFile,
+                       @Param("duration") Integer duration, @Param("loudness") Double loudness);
+}
@@ -0,0 +1,266 @@
+package com.example.music_app_project.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.music_app_project.model.PlayHistory;
+import com.example.music_app_project.util.CsvLine;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Exports play history and favorites as flat rows (ids plus username, song
+// title and artist name, never the nested entities) in NDJSON or CSV. Rows are
+// read through a forward-only cursor with H2 lazy query execution and written
+// straight to the response, gzip-compressed when the client accepts it, so
+// neither the result set nor the body is ever held in memory.
+@Component
+public class ActivityExporter {
+
+    public enum Dataset {
+        PLAYS("play-history",
+                new String[] { "historyID", "userID", "username", "songID", "title", "artist", "playedAt" }),
+        FAVORITES("favorites",
+                new String[] { "userID", "username", "songID", "title", "artist", "favoritedAt" });
+
+        private final String fileName;
+        private final String[] columns;
+
+        Dataset(String fileName, String[] columns) {
+            this.fileName = fileName;
+            this.columns = columns;
+        }
+    }
+
+    public enum Format {
+        NDJSON(MediaType.parseMediaType("application/x-ndjson")),
+        CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"));
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+    }
+
+    // Rows written between flushes of the response
+    private static final int CHUNK = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${music.export.fetch-size:1000}")
+    private int fetchSize;
+
+    public ResponseEntity<StreamingResponseBody> export(Dataset dataset, String format, Integer userId,
+                                                        LocalDate from, LocalDate to, String acceptEncoding) {
+        Format parsed;
+        try {
+            parsed = Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be ndjson or csv");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        List<Object> args = new ArrayList<>();
+        String sql = dataset == Dataset.PLAYS ? playsQuery(userId, from, to, args) : favoritesQuery(userId, from, to, args);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(parsed.mediaType)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(dataset.fileName + "." + parsed.name().toLowerCase()).build().toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(out -> write(dataset, parsed, sql, args, gzip ? new GZIPOutputStream(out, 64 * 1024) : out));
+    }
+
+    private static String playsQuery(Integer userId, LocalDate from, LocalDate to, List<Object> args) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT ph.historyid, ph.userid, u.username, ph.songid, s.title, a.name, ph.played_at " +
+                "FROM play_history ph JOIN users u ON u.id = ph.userid JOIN songs s ON s.songid = ph.songid " +
+                "LEFT JOIN artists a ON a.artistid = s.artistid WHERE 1 = 1");
+        if (userId != null) {
+            sql.append(" AND ph.userid = ?");
+            args.add(userId);
+        }
+        // Month bounds let the scan stay inside the partitions of the range
+        if (from != null) {
+            sql.append(" AND ph.played_month >= ? AND ph.played_at >= ?");
+            args.add(PlayHistory.monthOf(from.atStartOfDay()));
+            args.add(from.atStartOfDay());
+        }
+        if (to != null) {
+            sql.append(" AND ph.played_month <= ? AND ph.played_at < ?");
+            args.add(PlayHistory.monthOf(to.atStartOfDay()));
+            args.add(to.plusDays(1).atStartOfDay());
+        }
+        // Follow whichever index the filter uses, so rows stream without a sort
+        sql.append(userId == null && (from != null || to != null)
+                ? " ORDER BY ph.played_month, ph.played_at"
+                : " ORDER BY ph.historyid");
+        return sql.toString();
+    }
+
+    private static String favoritesQuery(Integer userId, LocalDate from, LocalDate to, List<Object> args) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT f.userid, u.username, f.songid, s.title, a.name, f.favorited_at " +
+                "FROM user_favorites f JOIN users u ON u.id = f.userid JOIN songs s ON s.songid = f.songid " +
+                "LEFT JOIN artists a ON a.artistid = s.artistid WHERE 1 = 1");
+        if (userId != null) {
+            sql.append(" AND f.userid = ?");
+            args.add(userId);
+        }
+        if (from != null) {
+            sql.append(" AND f.favorited_at >= ?");
+            args.add(from.atStartOfDay());
+        }
+        if (to != null) {
+            sql.append(" AND f.favorited_at < ?");
+            args.add(to.plusDays(1).atStartOfDay());
+        }
+        return sql.append(" ORDER BY f.userid, f.songid").toString();
+    }
+
+    private void write(Dataset dataset, Format format, String sql, List<Object> args, OutputStream out) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024)) {
+            RowWriter rows = format == Format.CSV ? csv(writer, dataset.columns) : ndjson(writer, dataset.columns);
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                scroll(connection, sql, args, rows);
+                return null;
+            });
+            rows.flush();
+        } catch (UncheckedIOException e) {
+            // Client went away; the cursor is already closed
+            throw e.getCause();
+        }
+    }
+
+    private void scroll(Connection connection, String sql, List<Object> args, RowWriter rows)
+            throws SQLException {
+        // Without lazy execution H2 computes the whole result before the first row
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LAZY_QUERY_EXECUTION TRUE");
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                statement.setObject(i + 1, args.get(i));
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                int written = 0;
+                while (rs.next()) {
+                    rows.write(rs);
+                    if (++written % CHUNK == 0) {
+                        rows.flush();
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        } finally {
+            // The connection goes back to the pool
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET LAZY_QUERY_EXECUTION FALSE");
+            }
+        }
+    }
+
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void flush() throws IOException;
+    }
+
+    private static RowWriter csv(Writer writer, String[] columns) throws IOException {
+        writer.write(String.join(",", columns));
+        writer.write("\r\n");
+        return new RowWriter() {
+            @Override
+            public void write(ResultSet rs) throws SQLException, IOException {
+                for (int i = 1; i <= columns.length; i++) {
+                    if (i > 1) {
+                        writer.write(',');
+                    }
+                    Object value = value(rs, i);
+                    if (value != null) {
+                        writer.write(CsvLine.quote(value.toString()));
+                    }
+                }
+                writer.write("\r\n");
+            }
+
+            @Override
+            public void flush() throws IOException {
+                writer.flush();
+            }
+        };
+    }
+
+    private RowWriter ndjson(Writer writer, String[] columns) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(writer);
+        json.setRootValueSeparator(null);
+        return new RowWriter() {
+            @Override
+            public void write(ResultSet rs) throws SQLException, IOException {
+                json.writeStartObject();
+                for (int i = 1; i <= columns.length; i++) {
+                    Object value = value(rs, i);
+                    if (value instanceof Number number) {
+                        json.writeNumberField(columns[i - 1], number.longValue());
+                    } else {
+                        json.writeStringField(columns[i - 1], value != null ? value.toString() : null);
+                    }
+                }
+                json.writeEndObject();
+                json.writeRaw('\n');
+            }
+
+            // Also flushes the writer underneath
+            @Override
+            public void flush() throws IOException {
+                json.flush();
+            }
+        };
+    }
+
+    // Timestamps as ISO local date-times, like the JSON API
+    private static Object value(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : value;
+    }
+}
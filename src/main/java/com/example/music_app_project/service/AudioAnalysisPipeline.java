@@ -0,0 +1,179 @@
+package com.example.music_app_project.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import com.example.music_app_project.dto.AudioAnalysis;
+import com.example.music_app_project.dto.NamedRow;
+import com.example.music_app_project.event.CatalogChangedEvent;
+import com.example.music_app_project.event.CatalogImportedEvent;
+import com.example.music_app_project.model.Song;
+import com.example.music_app_project.repository.SongRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Analyzes song audio in the background whenever a song is created or its audio
+// changes: a fixed pool of workers decodes the file, writes the peaks sidecar
+// and stores the measured duration and loudness on the song. The queue is
+// bounded; songs that don't fit are picked up by the next startup backfill.
+@Component
+public class AudioAnalysisPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(AudioAnalysisPipeline.class);
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @Autowired
+    private UploadsResolver uploadsResolver;
+
+    @Autowired
+    private AudioAnalyzer audioAnalyzer;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${music.analysis.workers:2}")
+    private int workers;
+
+    @Value("${music.analysis.queue-capacity:1000}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    // Songs waiting in the queue, so repeated updates don't stack up jobs
+    private final Set<Integer> queued = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threads = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "audio-analysis-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public int queueSize() {
+        return executor.getQueue().size();
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getType() == CatalogChangedEvent.Type.SONG && event.getEntity() instanceof Song song
+                && needsAnalysis(song)) {
+            submit(song.getSongID());
+        }
+    }
+
+    @Async
+    @EventListener
+    public void onCatalogImported(CatalogImportedEvent event) {
+        backfill();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        for (NamedRow row : songRepository.findUnanalyzedAudio()) {
+            if (uploadsResolver.resolve(row.getName()) != null) {
+                submit(row.getId());
+            }
+        }
+    }
+
+    // Sidecar with the waveform peaks of the song's current audio, or null
+    public Path peaksFile(String audioFile) throws IOException {
+        Path audio = uploadsResolver.resolve(audioFile);
+        return audio == null ? null : audioAnalyzer.freshSidecar(audio);
+    }
+
+    // Also true when a client overwrote the measured duration
+    private boolean needsAnalysis(Song song) {
+        Path audio = uploadsResolver.resolve(song.getAudioFile());
+        if (audio == null) {
+            return false;
+        }
+        try {
+            AudioAnalysis analysis = audioAnalyzer.readSidecar(audio);
+            return analysis == null || !matches(song, analysis);
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    private static boolean matches(Song song, AudioAnalysis analysis) {
+        return Objects.equals(song.getDuration(), analysis.getDurationSeconds())
+                && Objects.equals(song.getLoudness(), analysis.getLoudness());
+    }
+
+    private void submit(Integer songId) {
+        if (!queued.add(songId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> analyze(songId));
+        } catch (RejectedExecutionException e) {
+            queued.remove(songId);
+            log.warn("Audio analysis queue full, song {} left for the next backfill", songId);
+        }
+    }
+
+    private void analyze(Integer songId) {
+        queued.remove(songId);
+        try {
+            Optional<Song> songOpt = songRepository.findById(songId);
+            if (songOpt.isEmpty()) {
+                return;
+            }
+            Song song = songOpt.get();
+            Path audio = uploadsResolver.resolve(song.getAudioFile());
+            if (audio == null) {
+                return;
+            }
+            AudioAnalysis analysis = audioAnalyzer.readSidecar(audio);
+            if (analysis == null) {
+                analysis = audioAnalyzer.analyze(audio);
+                audioAnalyzer.writeSidecar(audio, analysis);
+            }
+            if (matches(song, analysis)) {
+                return;
+            }
+            int updated = songRepository.updateAnalysis(songId, song.getAudioFile(),
+                    analysis.getDurationSeconds(), analysis.getLoudness());
+            if (updated > 0) {
+                songRepository.findById(songId).ifPresent(fresh -> eventPublisher.publishEvent(
+                        new CatalogChangedEvent(CatalogChangedEvent.Type.SONG, CatalogChangedEvent.Action.UPDATED,
+                                songId, fresh)));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Audio analysis failed for song {}: {}", songId, e.toString());
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.music_app_project.service;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Locale;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.music_app_project.dto.AudioAnalysis;
+import com.example.music_app_project.util.LoudnessMeter;
+
+import javazoom.jl.decoder.Bitstream;
+import javazoom.jl.decoder.Decoder;
+import javazoom.jl.decoder.Header;
+import javazoom.jl.decoder.JavaLayerException;
+import javazoom.jl.decoder.SampleBuffer;
+
+// Decodes an audio file once (MP3 through JLayer, WAV/AIFF/AU through
+// javax.sound) and measures it. Results are kept in a binary sidecar next to
+// the audio file, "<file>.peaks", big-endian:
+//   "PEAK" | version u8 | duration ms i32 | loudness LUFS f32 (NaN = silent)
+//   | seconds per bucket f32 | bucket count i32 | peaks u8[count]
+@Component
+public class AudioAnalyzer {
+
+    public static final String SIDECAR_SUFFIX = ".peaks";
+
+    private static final int MAGIC = 0x5045414B; // "PEAK"
+    private static final int VERSION = 1;
+
+    @Value("${music.analysis.peak-buckets:1000}")
+    private int peakBuckets;
+
+    public AudioAnalysis analyze(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        Measurement measurement = new Measurement();
+        if (name.endsWith(".mp3")) {
+            decodeMp3(file, measurement);
+        } else {
+            decodeSampled(file, measurement);
+        }
+        return measurement.finish(peakBuckets);
+    }
+
+    public static Path sidecarFor(Path audio) {
+        return audio.resolveSibling(audio.getFileName() + SIDECAR_SUFFIX);
+    }
+
+    // Sidecar written after the audio file's last change, or null
+    public Path freshSidecar(Path audio) throws IOException {
+        Path sidecar = sidecarFor(audio);
+        if (!Files.isRegularFile(sidecar)
+                || Files.getLastModifiedTime(sidecar).compareTo(Files.getLastModifiedTime(audio)) < 0) {
+            return null;
+        }
+        return sidecar;
+    }
+
+    // Stored analysis of the audio file when it is still current, or null
+    public AudioAnalysis readSidecar(Path audio) throws IOException {
+        Path sidecar = freshSidecar(audio);
+        if (sidecar == null) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(sidecar)))) {
+            if (in.readInt() != MAGIC || in.readUnsignedByte() != VERSION) {
+                return null;
+            }
+            long durationMs = in.readInt() & 0xFFFFFFFFL;
+            double loudness = in.readFloat();
+            float bucketSeconds = in.readFloat();
+            byte[] peaks = new byte[in.readInt()];
+            in.readFully(peaks);
+            return new AudioAnalysis(durationMs, loudness, bucketSeconds, peaks);
+        }
+    }
+
+    public void writeSidecar(Path audio, AudioAnalysis analysis) throws IOException {
+        Path sidecar = sidecarFor(audio);
+        Path temp = Files.createTempFile(sidecar.getParent(), sidecar.getFileName().toString(), ".part");
+        try {
+            try (OutputStream file = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(file)) {
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+                out.writeInt((int) Math.min(analysis.getDurationMs(), 0xFFFFFFFFL));
+                out.writeFloat(analysis.getLoudness() == null ? Float.NaN : analysis.getLoudness().floatValue());
+                out.writeFloat(analysis.getBucketSeconds());
+                out.writeInt(analysis.getPeaks().length);
+                out.write(analysis.getPeaks());
+            }
+            Files.move(temp, sidecar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void decodeMp3(Path file, Measurement measurement) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 64 * 1024)) {
+            Bitstream bitstream = new Bitstream(in);
+            Decoder decoder = new Decoder();
+            float[] samples = new float[0];
+            Header header;
+            while ((header = bitstream.readFrame()) != null) {
+                SampleBuffer buffer = (SampleBuffer) decoder.decodeFrame(header, bitstream);
+                short[] pcm = buffer.getBuffer();
+                int length = buffer.getBufferLength();
+                if (samples.length < length) {
+                    samples = new float[length];
+                }
+                for (int i = 0; i < length; i++) {
+                    samples[i] = pcm[i] / 32768f;
+                }
+                int channels = buffer.getChannelCount();
+                measurement.add(samples, length / channels, channels, buffer.getSampleFrequency());
+                bitstream.closeFrame();
+            }
+        } catch (JavaLayerException e) {
+            throw new IOException("Cannot decode MP3: " + e.getMessage(), e);
+        }
+    }
+
+    private void decodeSampled(Path file, Measurement measurement) throws IOException {
+        AudioInputStream source;
+        try {
+            source = AudioSystem.getAudioInputStream(file.toFile());
+        } catch (UnsupportedAudioFileException e) {
+            throw new IOException("Unsupported audio format: " + file.getFileName(), e);
+        }
+        AudioFormat format = source.getFormat();
+        int channels = format.getChannels();
+        int rate = Math.round(format.getSampleRate());
+        AudioFormat pcm16 = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, format.getSampleRate(), 16,
+                channels, channels * 2, format.getSampleRate(), false);
+        try (AudioInputStream in = format.matches(pcm16) ? source : convert(pcm16, source)) {
+            byte[] bytes = new byte[4096 * channels * 2];
+            float[] samples = new float[4096 * channels];
+            int pending = 0;
+            int n;
+            while ((n = in.read(bytes, pending, bytes.length - pending)) != -1) {
+                int available = pending + n;
+                int frames = available / (channels * 2);
+                for (int i = 0; i < frames * channels; i++) {
+                    samples[i] = (short) ((bytes[2 * i] & 0xFF) | (bytes[2 * i + 1] << 8)) / 32768f;
+                }
+                measurement.add(samples, frames, channels, rate);
+                // carry an incomplete frame over to the next read
+                pending = available - frames * channels * 2;
+                System.arraycopy(bytes, frames * channels * 2, bytes, 0, pending);
+            }
+        }
+    }
+
+    private AudioInputStream convert(AudioFormat target, AudioInputStream source) throws IOException {
+        try {
+            return AudioSystem.getAudioInputStream(target, source);
+        } catch (IllegalArgumentException e) {
+            source.close();
+            throw new IOException("Unsupported sample format: " + source.getFormat(), e);
+        }
+    }
+
+    // Streaming accumulator; the format is taken from the first decoded chunk
+    private static class Measurement {
+
+        private LoudnessMeter meter;
+        private int rate;
+        private int channels;
+        private long frames;
+
+        // Peak of every 10 ms block, downsampled to the bucket count at the end
+        private int blockFrames;
+        private int blockFill;
+        private float blockPeak;
+        private float[] blocks = new float[1024];
+        private int blockCount;
+
+        void add(float[] samples, int frameCount, int channels, int rate) {
+            if (meter == null) {
+                this.rate = rate;
+                this.channels = channels;
+                this.meter = new LoudnessMeter(rate, channels);
+                this.blockFrames = Math.max(1, rate / 100);
+            } else if (rate != this.rate || channels != this.channels) {
+                // format switches mid-stream (rare in MP3) are not worth resampling for
+                return;
+            }
+            meter.add(samples, 0, frameCount);
+            frames += frameCount;
+            int i = 0;
+            for (int f = 0; f < frameCount; f++) {
+                for (int c = 0; c < channels; c++) {
+                    float abs = Math.abs(samples[i++]);
+                    if (abs > blockPeak) {
+                        blockPeak = abs;
+                    }
+                }
+                if (++blockFill == blockFrames) {
+                    closeBlock();
+                }
+            }
+        }
+
+        private void closeBlock() {
+            if (blockCount == blocks.length) {
+                blocks = Arrays.copyOf(blocks, blocks.length * 2);
+            }
+            blocks[blockCount++] = blockPeak;
+            blockPeak = 0;
+            blockFill = 0;
+        }
+
+        AudioAnalysis finish(int buckets) throws IOException {
+            if (meter == null) {
+                throw new IOException("No audio frames decoded");
+            }
+            if (blockFill > 0) {
+                closeBlock();
+            }
+            int count = Math.min(buckets, blockCount);
+            byte[] peaks = new byte[count];
+            for (int b = 0; b < count; b++) {
+                int from = (int) ((long) b * blockCount / count);
+                int to = (int) ((long) (b + 1) * blockCount / count);
+                float peak = 0;
+                for (int i = from; i < to; i++) {
+                    peak = Math.max(peak, blocks[i]);
+                }
+                peaks[b] = (byte) Math.min(255, Math.round(peak * 255));
+            }
+            long durationMs = frames * 1000 / rate;
+            float bucketSeconds = count == 0 ? 0 : (float) frames / rate / count;
+            return new AudioAnalysis(durationMs, meter.integrated(), bucketSeconds, peaks);
+        }
+    }
+}
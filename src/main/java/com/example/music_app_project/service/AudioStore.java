@@ -0,0 +1,164 @@
+package com.example.music_app_project.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.music_app_project.dto.StoredAudio;
+
+import jakarta.annotation.PostConstruct;
+
+// Content-addressed audio storage under the uploads directory. An upload is
+// copied to a temp file while its SHA-256 is computed, then moved to
+// audio/<first two hex digits>/<hash>.<ext>; identical bytes end up at the same
+// path and are stored once. Disk writers are capped by a semaphore.
+@Component
+public class AudioStore {
+
+    public static final Set<String> EXTENSIONS = Set.of("mp3", "wav", "ogg", "oga", "flac", "m4a", "aac", "webm");
+
+    private static final Map<String, String> TYPE_EXTENSIONS = Map.of(
+            "audio/mpeg", "mp3", "audio/mp3", "mp3",
+            "audio/wav", "wav", "audio/x-wav", "wav", "audio/wave", "wav",
+            "audio/ogg", "ogg", "audio/flac", "flac",
+            "audio/mp4", "m4a", "audio/aac", "aac", "audio/webm", "webm");
+
+    private static final String AUDIO_DIR = "audio";
+    private static final String INCOMING_DIR = ".incoming";
+    private static final int BUFFER = 64 * 1024;
+
+    @Autowired
+    private UploadsResolver uploadsResolver;
+
+    @Value("${music.uploads.max-concurrent:4}")
+    private int maxConcurrent;
+
+    @Value("${music.uploads.queue-timeout:30s}")
+    private Duration queueTimeout;
+
+    @Value("${spring.servlet.multipart.max-file-size:10MB}")
+    private DataSize maxSize;
+
+    private Semaphore writers;
+
+    // compute() on a hash serializes the exists check and move of uploads with the
+    // same bytes; the entry is removed again as soon as the move is done
+    private final ConcurrentHashMap<String, Boolean> placing = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() throws IOException {
+        writers = new Semaphore(maxConcurrent, true);
+        Files.createDirectories(uploadsResolver.getRoot().resolve(INCOMING_DIR));
+    }
+
+    // Lower-case extension of an accepted audio file name, or null
+    public static String extensionOf(String filename) {
+        if (filename == null) {
+            return null;
+        }
+        int dot = filename.lastIndexOf('.');
+        String ext = dot < 0 ? "" : filename.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return EXTENSIONS.contains(ext) ? ext : null;
+    }
+
+    // Extension for a raw upload's Content-Type, or null
+    public static String extensionOf(MediaType contentType) {
+        return contentType == null ? null : TYPE_EXTENSIONS.get(contentType.getType() + "/" + contentType.getSubtype());
+    }
+
+    public StoredAudio store(InputStream in, String extension) throws IOException {
+        try {
+            if (!writers.tryAcquire(queueTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many uploads in progress");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Upload interrupted");
+        }
+        Path root = uploadsResolver.getRoot();
+        Path temp = Files.createTempFile(root.resolve(INCOMING_DIR), "upload-", ".part");
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            long size = 0;
+            byte[] buffer = new byte[BUFFER];
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    size += n;
+                    if (size > maxSize.toBytes()) {
+                        throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                                "Audio file larger than " + maxSize);
+                    }
+                    sha256.update(buffer, 0, n);
+                    out.write(buffer, 0, n);
+                }
+            }
+            if (size == 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Empty audio file");
+            }
+            String hash = HexFormat.of().formatHex(sha256.digest());
+            String relative = AUDIO_DIR + "/" + hash.substring(0, 2) + "/" + hash + "." + extension;
+            Path target = root.resolve(relative);
+            boolean[] deduplicated = new boolean[1];
+            try {
+                placing.compute(hash, (key, none) -> {
+                    deduplicated[0] = place(temp, target);
+                    return null;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return new StoredAudio("/" + relative, hash, size, deduplicated[0]);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            Files.deleteIfExists(temp);
+            writers.release();
+        }
+    }
+
+    // Moves the temp file into place unless the target exists; true when it already did.
+    // An atomic rename replaces an existing target on Linux, hence the per-hash lock.
+    private static boolean place(Path temp, Path target) {
+        try {
+            if (Files.exists(target)) {
+                return true;
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target);
+            }
+            return false;
+        } catch (FileAlreadyExistsException e) {
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.music_app_project.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Serves an audio file with byte-range support (RFC 9110 section 14). Whole files
+// and single ranges are handed to the container's sendfile when it offers it, so
+// the bytes never enter the JVM; multipart ranges and other containers go through
+// FileChannel.transferTo with a small fixed buffer. Without sendfile, files held
+// by the hot audio cache are written from their mapping instead.
+@Component
+public class AudioStreamer {
+
+    @Autowired
+    private HotAudioCache hotAudioCache;
+
+    // Tomcat's sendfile contract (org.apache.catalina.Globals), kept as strings so
+    // other containers simply fall back to transferTo
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private record Part(long start, long end, byte[] header) {
+    }
+
+    // False when there is no such file; nothing has been written then
+    public boolean stream(Path file, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // A hot file is served from its mapping without touching the disk; anything
+        // else costs one stat, which also tells whether the file exists
+        HotAudioCache.Entry hot = hotAudioCache.get(file);
+        long length;
+        long lastModified;
+        if (hot != null) {
+            length = hot.getLength();
+            lastModified = hot.getLastModified();
+        } else {
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            } catch (NoSuchFileException e) {
+                return false;
+            }
+            if (!attributes.isRegularFile()) {
+                return false;
+            }
+            length = attributes.size();
+            lastModified = attributes.lastModifiedTime().toMillis();
+        }
+        String etag = "\"" + Long.toString(length, 36) + "-" + Long.toString(lastModified, 36) + "\"";
+        MediaType contentType = MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        List<HttpRange> ranges = List.of();
+        if (rangeHeader != null && ifRangeHolds(request, etag, lastModified)) {
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                // A Range header that doesn't parse is ignored (RFC 9110 section 14.2)
+            }
+        }
+        if (ranges.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(contentType.toString());
+            response.setContentLengthLong(length);
+            send(file, hot, 0, length, request, response);
+            return true;
+        }
+
+        // Ranges starting past the end are dropped, the rest are clamped to the file
+        List<long[]> satisfiable = new ArrayList<>(ranges.size());
+        for (HttpRange range : ranges) {
+            long start = range.getRangeStart(length);
+            long end = range.getRangeEnd(length);
+            if (start < length && start <= end) {
+                satisfiable.add(new long[] { start, end });
+            }
+        }
+        // Overlapping and adjacent ranges are coalesced, so repeating a range can't
+        // make the response larger than the file
+        satisfiable.sort(Comparator.comparingLong(range -> range[0]));
+        int merged = 0;
+        for (long[] range : satisfiable) {
+            long[] last = merged > 0 ? satisfiable.get(merged - 1) : null;
+            if (last != null && range[0] <= last[1] + 1) {
+                last[1] = Math.max(last[1], range[1]);
+            } else {
+                satisfiable.set(merged++, range);
+            }
+        }
+        satisfiable.subList(merged, satisfiable.size()).clear();
+        if (satisfiable.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            return true;
+        }
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        if (satisfiable.size() == 1) {
+            long start = satisfiable.get(0)[0];
+            long end = satisfiable.get(0)[1];
+            response.setContentType(contentType.toString());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            response.setContentLengthLong(end - start + 1);
+            send(file, hot, start, end - start + 1, request, response);
+            return true;
+        }
+
+        // multipart/byteranges; the length is known up front since only the part headers are generated
+        String boundary = UUID.randomUUID().toString();
+        List<Part> parts = new ArrayList<>(satisfiable.size());
+        long total = 0;
+        for (long[] range : satisfiable) {
+            byte[] header = ("\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": bytes " + range[0] + "-" + range[1] + "/" + length + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            parts.add(new Part(range[0], range[1], header));
+            total += header.length + range[1] - range[0] + 1;
+        }
+        byte[] trailer = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(total + trailer.length);
+        if ("HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        OutputStream out = response.getOutputStream();
+        WritableByteChannel target = Channels.newChannel(out);
+        try (FileChannel channel = hot == null ? FileChannel.open(file, StandardOpenOption.READ) : null) {
+            for (Part part : parts) {
+                out.write(part.header());
+                long count = part.end() - part.start() + 1;
+                if (hot != null) {
+                    write(hot.slice(part.start(), count), target);
+                } else {
+                    transfer(channel, part.start(), count, target);
+                }
+            }
+        }
+        out.write(trailer);
+        return true;
+    }
+
+    // If-Range: the client's copy must still be current, otherwise the full file is sent
+    private boolean ifRangeHolds(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void send(Path file, HotAudioCache.Entry hot, long start, long count, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        // sendfile beats copying even a mapped file through the output stream; a hot
+        // file's pages are resident, so the kernel sends them without disk reads
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+        if (hot != null) {
+            write(hot.slice(start, count), Channels.newChannel(response.getOutputStream()));
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            transfer(channel, start, count, Channels.newChannel(response.getOutputStream()));
+        }
+    }
+
+    private void write(ByteBuffer source, WritableByteChannel target) throws IOException {
+        while (source.hasRemaining()) {
+            target.write(source);
+        }
+    }
+
+    private void transfer(FileChannel channel, long position, long count, WritableByteChannel target) throws IOException {
+        while (count > 0) {
+            long sent = channel.transferTo(position, count, target);
+            if (sent <= 0) {
+                throw new IOException("File shrank while streaming");
+            }
+            position += sent;
+            count -= sent;
+        }
+    }
+}
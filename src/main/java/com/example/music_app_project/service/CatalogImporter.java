@@ -0,0 +1,386 @@
+package com.example.music_app_project.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.music_app_project.dto.ImportReport;
+import com.example.music_app_project.dto.ImportRow;
+import com.example.music_app_project.event.CatalogImportedEvent;
+import com.example.music_app_project.util.CsvLine;
+import com.example.music_app_project.util.SearchKeys;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Bulk song import. Input is parsed line by line as it arrives; artists, albums
+// and genres are matched by folded name against maps loaded once per import and
+// created when missing. Songs are written with JDBC batches, one transaction per
+// chunk: a failing chunk is rolled back and reported, earlier chunks stay.
+@Component
+public class CatalogImporter {
+
+    private static final String INSERT_SONG = "INSERT INTO songs "
+            + "(title, title_key, artistid, albumid, genreid, duration, release_date, audio_file) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ARTIST = "INSERT INTO artists (name, name_key) VALUES (?, ?)";
+    private static final String INSERT_ALBUM = "INSERT INTO albums (title, title_key, artistid) VALUES (?, ?, ?)";
+    private static final String INSERT_GENRE = "INSERT INTO genres (name) VALUES (?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${music.import.chunk-size:2000}")
+    private int chunkSize;
+
+    @Value("${music.import.max-errors:100}")
+    private int maxErrors;
+
+    // One JSON object per line
+    public ImportReport importNdjson(InputStream in) throws IOException {
+        Run run = new Run();
+        try (BufferedReader reader = reader(in)) {
+            long lineNo = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    run.add(lineNo, objectMapper.readValue(line, ImportRow.class));
+                } catch (JsonProcessingException e) {
+                    run.reject(lineNo, e.getOriginalMessage());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            run.abort();
+            throw e;
+        }
+        return run.finish();
+    }
+
+    // Header row naming the columns (title, artist, album, genre, duration, releaseDate, audioFile)
+    public ImportReport importCsv(InputStream in) throws IOException {
+        Run run = new Run();
+        try (BufferedReader reader = reader(in)) {
+            Map<String, Integer> columns = null;
+            long lineNo = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    List<String> fields = CsvLine.split(line);
+                    if (columns == null) {
+                        columns = header(fields);
+                        if (!columns.containsKey("title")) {
+                            run.reject(lineNo, "header has no title column");
+                            break;
+                        }
+                        continue;
+                    }
+                    run.add(lineNo, toRow(columns, fields));
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    run.reject(lineNo, e.getMessage());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            run.abort();
+            throw e;
+        }
+        return run.finish();
+    }
+
+    private BufferedReader reader(InputStream in) {
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    private Map<String, Integer> header(List<String> fields) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            // "releaseDate", "release_date" and "Release Date" all name the same column
+            String name = fields.get(i).replace("\uFEFF", "").replaceAll("[_\\s]", "").toLowerCase(Locale.ROOT);
+            columns.putIfAbsent(name, i);
+        }
+        return columns;
+    }
+
+    private ImportRow toRow(Map<String, Integer> columns, List<String> fields) {
+        ImportRow row = new ImportRow();
+        row.setTitle(field(columns, fields, "title"));
+        row.setArtist(field(columns, fields, "artist"));
+        row.setAlbum(field(columns, fields, "album"));
+        row.setGenre(field(columns, fields, "genre"));
+        String duration = field(columns, fields, "duration");
+        if (duration != null) {
+            try {
+                row.setDuration(Integer.parseInt(duration));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("duration is not a number: " + duration);
+            }
+        }
+        String releaseDate = field(columns, fields, "releasedate");
+        if (releaseDate != null) {
+            row.setReleaseDate(LocalDate.parse(releaseDate));
+        }
+        row.setAudioFile(field(columns, fields, "audiofile"));
+        return row;
+    }
+
+    private String field(Map<String, Integer> columns, List<String> fields, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        value = value.trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String tooLong(String field, String value, int max) {
+        return value != null && value.length() > max ? field + " is longer than " + max + " characters" : null;
+    }
+
+    // State of a single import: name lookups, the pending chunk and the report
+    private class Run {
+
+        private final long started = System.nanoTime();
+        private final ImportReport report = new ImportReport();
+        private final TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        // Folded name -> id; albums are keyed by artist id and folded title
+        private final Map<String, Integer> artists = new HashMap<>();
+        private final Map<String, Integer> albums = new HashMap<>();
+        private final Map<String, Integer> genres = new HashMap<>();
+
+        private final List<Long> lines = new ArrayList<>();
+        private final List<ImportRow> rows = new ArrayList<>();
+
+        // Keys created by the current chunk, forgotten again if it rolls back
+        private final List<String> newArtists = new ArrayList<>();
+        private final List<String> newAlbums = new ArrayList<>();
+        private final List<String> newGenres = new ArrayList<>();
+
+        Run() {
+            jdbcTemplate.query("SELECT artistid, name FROM artists",
+                    rs -> { artists.putIfAbsent(SearchKeys.fold(rs.getString(2)), rs.getInt(1)); });
+            jdbcTemplate.query("SELECT albumid, artistid, title FROM albums",
+                    rs -> { albums.putIfAbsent(albumKey(rs.getInt(2), rs.getString(3)), rs.getInt(1)); });
+            jdbcTemplate.query("SELECT genreid, name FROM genres",
+                    rs -> { genres.putIfAbsent(SearchKeys.fold(rs.getString(2)), rs.getInt(1)); });
+        }
+
+        void add(long line, ImportRow row) {
+            // A "null" line parses to no row at all
+            if (row == null) {
+                reject(line, "row is not an object");
+                return;
+            }
+            row.setTitle(trimToNull(row.getTitle()));
+            row.setArtist(trimToNull(row.getArtist()));
+            row.setAlbum(trimToNull(row.getAlbum()));
+            row.setGenre(trimToNull(row.getGenre()));
+            row.setAudioFile(trimToNull(row.getAudioFile()));
+            String error = validate(row);
+            if (error != null) {
+                reject(line, error);
+                return;
+            }
+            lines.add(line);
+            rows.add(row);
+            if (rows.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(long line, String message) {
+            report.setFailed(report.getFailed() + 1);
+            if (report.getErrors().size() < maxErrors) {
+                report.getErrors().add(new ImportReport.RowError(line, message));
+            }
+        }
+
+        ImportReport finish() {
+            try {
+                flush();
+            } finally {
+                publish();
+            }
+            report.setElapsedMs((System.nanoTime() - started) / 1_000_000);
+            return report;
+        }
+
+        // The stream broke off: chunks already committed still have to reach the
+        // indexes, charts and ETags; the pending chunk is dropped
+        void abort() {
+            publish();
+        }
+
+        private void publish() {
+            if (report.getImported() > 0) {
+                // Published before returning: ETags, charts and the ingest id sets are
+                // current when the report is sent. The song search and facet indexes
+                // rebuild asynchronously and bump the song list version once they are done
+                eventPublisher.publishEvent(new CatalogImportedEvent(report.getImported(),
+                        report.getArtistsCreated(), report.getAlbumsCreated(), report.getGenresCreated()));
+            }
+        }
+
+        private String validate(ImportRow row) {
+            if (row.getTitle() == null) {
+                return "title is required";
+            }
+            if (row.getAlbum() != null && row.getArtist() == null) {
+                return "album requires an artist";
+            }
+            if (row.getDuration() != null && row.getDuration() < 0) {
+                return "duration must not be negative";
+            }
+            // Column sizes of the entities
+            String error = tooLong("title", row.getTitle(), 100);
+            if (error == null) {
+                error = tooLong("artist", row.getArtist(), 100);
+            }
+            if (error == null) {
+                error = tooLong("album", row.getAlbum(), 100);
+            }
+            if (error == null) {
+                error = tooLong("genre", row.getGenre(), 50);
+            }
+            if (error == null) {
+                error = tooLong("audioFile", row.getAudioFile(), 255);
+            }
+            return error;
+        }
+
+        private void flush() {
+            if (rows.isEmpty()) {
+                return;
+            }
+            try {
+                tx.executeWithoutResult(status -> insertChunk());
+                report.setImported(report.getImported() + rows.size());
+                report.setArtistsCreated(report.getArtistsCreated() + newArtists.size());
+                report.setAlbumsCreated(report.getAlbumsCreated() + newAlbums.size());
+                report.setGenresCreated(report.getGenresCreated() + newGenres.size());
+            } catch (DataAccessException | TransactionException e) {
+                newArtists.forEach(artists::remove);
+                newAlbums.forEach(albums::remove);
+                newGenres.forEach(genres::remove);
+                String message = "chunk rolled back: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                for (Long line : lines) {
+                    reject(line, message);
+                }
+            }
+            lines.clear();
+            rows.clear();
+            newArtists.clear();
+            newAlbums.clear();
+            newGenres.clear();
+        }
+
+        private void insertChunk() {
+            List<Object[]> batch = new ArrayList<>(rows.size());
+            for (ImportRow row : rows) {
+                Integer artistId = row.getArtist() == null ? null : artistId(row.getArtist());
+                Integer albumId = row.getAlbum() == null ? null : albumId(artistId, row.getAlbum());
+                Integer genreId = row.getGenre() == null ? null : genreId(row.getGenre());
+                batch.add(new Object[] {
+                        row.getTitle(), SearchKeys.fold(row.getTitle()), artistId, albumId, genreId,
+                        row.getDuration(), row.getReleaseDate(), row.getAudioFile() });
+            }
+            jdbcTemplate.batchUpdate(INSERT_SONG, batch);
+        }
+
+        private int artistId(String name) {
+            String key = SearchKeys.fold(name);
+            Integer id = artists.get(key);
+            if (id == null) {
+                id = insert(INSERT_ARTIST, name, key);
+                artists.put(key, id);
+                newArtists.add(key);
+            }
+            return id;
+        }
+
+        private int albumId(int artistId, String title) {
+            String key = albumKey(artistId, title);
+            Integer id = albums.get(key);
+            if (id == null) {
+                id = insert(INSERT_ALBUM, title, SearchKeys.fold(title), artistId);
+                albums.put(key, id);
+                newAlbums.add(key);
+            }
+            return id;
+        }
+
+        private int genreId(String name) {
+            String key = SearchKeys.fold(name);
+            Integer id = genres.get(key);
+            if (id == null) {
+                id = insert(INSERT_GENRE, name);
+                genres.put(key, id);
+                newGenres.add(key);
+            }
+            return id;
+        }
+
+        private String albumKey(int artistId, String title) {
+            return artistId + ":" + SearchKeys.fold(title);
+        }
+
+        private int insert(String sql, Object... args) {
+            KeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+                for (int i = 0; i < args.length; i++) {
+                    ps.setObject(i + 1, args[i]);
+                }
+                return ps;
+            }, keys);
+            return keys.getKey().intValue();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.music_app_project.service;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.example.music_app_project.event.CatalogChangedEvent;
+import com.example.music_app_project.event.CatalogImportedEvent;
+
+// Version stamps of the catalog collections, served as strong ETags so list
+// endpoints can answer If-None-Match with 304 before touching the database.
+// The startup time is part of the tag: counters restart at 0 after a reboot.
+@Component
+public class CatalogVersions {
+
+    public enum Collection {
+        SONGS, ARTISTS, ALBUMS, GENRES
+    }
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Collection, AtomicLong> versions = new EnumMap<>(Collection.class);
+
+    public CatalogVersions() {
+        for (Collection collection : Collection.values()) {
+            versions.put(collection, new AtomicLong());
+        }
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        // A collection also changes when an entity it embeds in its JSON changes
+        switch (event.getType()) {
+            case SONG -> bump(Collection.SONGS);
+            case ARTIST -> bump(Collection.ARTISTS, Collection.ALBUMS, Collection.SONGS);
+            case ALBUM -> bump(Collection.ALBUMS, Collection.SONGS);
+            case GENRE -> bump(Collection.GENRES, Collection.SONGS);
+        }
+    }
+
+    @EventListener
+    public void onCatalogImported(CatalogImportedEvent event) {
+        bump(Collection.values());
+    }
+
+    // Read before querying: a write racing the query then only makes the tag older, never newer
+    public String etag(Collection collection) {
+        return "\"" + collection.name().toLowerCase(Locale.ROOT) + "-" + epoch + "-" + versions.get(collection).get() + "\"";
+    }
+
+    public boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Validators sent with every list response: clients must revalidate, and may reuse on 304
+    public ResponseEntity.BodyBuilder ok(String etag) {
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache());
+    }
+
+    public <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+    }
+
+    // Also for state derived asynchronously, once it has caught up with a change
+    public void bump(Collection... collections) {
+        for (Collection collection : collections) {
+            versions.get(collection).incrementAndGet();
+        }
+    }
+}
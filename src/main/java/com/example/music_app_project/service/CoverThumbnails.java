@@ -0,0 +1,241 @@
+package com.example.music_app_project.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Resized JPEG variants of album covers, stored under uploads/covers as
+// <sha256 of the source>-<size>.jpg so a variant's name changes whenever its
+// source does. Resizes run on a small bounded pool; concurrent requests for a
+// variant that doesn't exist yet share one job.
+@Component
+public class CoverThumbnails {
+
+    private static final Pattern VARIANT = Pattern.compile("[0-9a-f]{64}-\\d{1,4}\\.jpg");
+    private static final String COVERS_DIR = "covers";
+
+    private record SourceHash(long size, long lastModified, String sha256) {
+    }
+
+    @Autowired
+    private UploadsResolver uploadsResolver;
+
+    @Value("${music.covers.sizes:64,128,256,512}")
+    private int[] sizes;
+
+    @Value("${music.covers.default-size:256}")
+    private int defaultSize;
+
+    @Value("${music.covers.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    @Value("${music.covers.workers:2}")
+    private int workers;
+
+    @Value("${music.covers.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${music.covers.wait-timeout:30s}")
+    private Duration waitTimeout;
+
+    private ThreadPoolExecutor executor;
+
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final Map<Path, SourceHash> hashes = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        sizes = Arrays.stream(sizes).sorted().toArray();
+        AtomicInteger threads = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "cover-resize-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Smallest configured size that covers the request, so arbitrary sizes can't fill the disk
+    public int snap(Integer requested) {
+        int wanted = requested == null ? defaultSize : requested;
+        for (int size : sizes) {
+            if (size >= wanted) {
+                return size;
+            }
+        }
+        return sizes[sizes.length - 1];
+    }
+
+    // Name of the variant of source at size, resizing it first if needed
+    public String variant(Path source, int size) throws IOException {
+        String name = sha256(source) + "-" + size + ".jpg";
+        Path target = variantPath(name);
+        if (Files.exists(target)) {
+            return name;
+        }
+        CompletableFuture<String> job;
+        try {
+            job = inFlight.computeIfAbsent(name, key -> CompletableFuture.supplyAsync(() -> {
+                resize(source, target, size);
+                return key;
+            }, executor));
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many covers being resized");
+        }
+        job.whenComplete((result, error) -> inFlight.remove(name, job));
+        try {
+            return job.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Cover resize timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Cover resize interrupted");
+        } catch (ExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Cover is not a readable image");
+        }
+    }
+
+    // Stored variant by name, or null
+    public Path variantFile(String name) {
+        if (!VARIANT.matcher(name).matches()) {
+            return null;
+        }
+        Path file = variantPath(name);
+        return Files.isRegularFile(file) ? file : null;
+    }
+
+    private Path variantPath(String name) {
+        return uploadsResolver.getRoot().resolve(COVERS_DIR).resolve(name.substring(0, 2)).resolve(name);
+    }
+
+    private String sha256(Path source) throws IOException {
+        long size = Files.size(source);
+        long lastModified = Files.getLastModifiedTime(source).toMillis();
+        SourceHash known = hashes.get(source);
+        if (known != null && known.size() == size && known.lastModified() == lastModified) {
+            return known.sha256();
+        }
+        try (InputStream in = Files.newInputStream(source)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, n);
+            }
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            hashes.put(source, new SourceHash(size, lastModified, sha256));
+            return sha256;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void resize(Path source, Path target, int size) {
+        if (Files.exists(target)) {
+            return; // finished by a job that completed just before this one started
+        }
+        try {
+            BufferedImage original = ImageIO.read(source.toFile());
+            if (original == null) {
+                throw new IllegalArgumentException("Not an image: " + source.getFileName());
+            }
+            double scale = Math.min(1.0, (double) size / Math.max(original.getWidth(), original.getHeight()));
+            int width = Math.max(1, (int) Math.round(original.getWidth() * scale));
+            int height = Math.max(1, (int) Math.round(original.getHeight() * scale));
+
+            // Halve with bilinear first: a single bicubic pass from far above the target aliases
+            BufferedImage image = draw(original, original.getWidth(), original.getHeight(),
+                    RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            while (image.getWidth() / 2 >= width && image.getHeight() / 2 >= height) {
+                image = draw(image, image.getWidth() / 2, image.getHeight() / 2,
+                        RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            }
+            if (image.getWidth() != width || image.getHeight() != height) {
+                image = draw(image, width, height, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            }
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), "resize-", ".part");
+            try {
+                writeJpeg(image, temp);
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Opaque RGB copy at the given size; transparent areas become white
+    private BufferedImage draw(BufferedImage source, int width, int height, Object interpolation) {
+        BufferedImage out = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return out;
+    }
+
+    private void writeJpeg(BufferedImage image, Path file) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam params = writer.getDefaultWriteParam();
+        params.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        params.setCompressionQuality(jpegQuality);
+        try (OutputStream out = Files.newOutputStream(file);
+             ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(imageOut);
+            writer.write(null, new IIOImage(image, null, null), params);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
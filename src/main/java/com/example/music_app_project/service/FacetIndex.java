@@ -0,0 +1,272 @@
+package com.example.music_app_project.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import com.example.music_app_project.dto.FacetCounts;
+import com.example.music_app_project.dto.SongIndexRow;
+import com.example.music_app_project.event.CatalogChangedEvent;
+import com.example.music_app_project.event.CatalogImportedEvent;
+import com.example.music_app_project.model.Song;
+import com.example.music_app_project.repository.SongRepository;
+import com.example.music_app_project.util.IntBitmap;
+
+// Compressed bitmaps of song ids per genre, artist and album. Filters of the
+// song list become bitmap intersections and facet counts are intersection
+// cardinalities, so neither needs a query.
+@Component
+public class FacetIndex {
+
+    private static final int NONE = 0;
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Facets facets = new Facets();
+    private volatile boolean ready;
+
+    // Song changes made while a rebuild loads, replayed onto the new bitmaps
+    private List<Consumer<Facets>> pending;
+
+    private static final class Facets {
+        final IntBitmap all = new IntBitmap();
+        final IntBitmap withoutGenre = new IntBitmap();
+        final IntBitmap withoutArtist = new IntBitmap();
+        final Map<Integer, IntBitmap> byGenre = new HashMap<>();
+        final Map<Integer, IntBitmap> byArtist = new HashMap<>();
+        final Map<Integer, IntBitmap> byAlbum = new HashMap<>();
+        // songID -> {genreID, artistID, albumID}, NONE when missing; needed to move a song on update
+        final Map<Integer, int[]> refs = new HashMap<>();
+    }
+
+    @Async
+    @EventListener
+    public void onCatalogImported(CatalogImportedEvent event) {
+        rebuild();
+        // Song lists served from the old index meanwhile were tagged with the version
+        // the import bumped; bump again so clients don't keep them on a 304
+        catalogVersions.bump(CatalogVersions.Collection.SONGS);
+    }
+
+    // Loads into new bitmaps without the lock; readers only wait for the swap
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Facets loaded = new Facets();
+        try {
+            for (SongIndexRow row : songRepository.findIndexRows()) {
+                add(loaded, row.getSongID(), row.getGenreID(), row.getArtistID(), row.getAlbumID());
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            pending = null;
+            lock.writeLock().unlock();
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            // A change is a remove then an add, so replaying one the query already saw is harmless
+            for (Consumer<Facets> change : pending) {
+                change.accept(loaded);
+            }
+            pending = null;
+            facets = loaded;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getType() != CatalogChangedEvent.Type.SONG) {
+            return;
+        }
+        int songId = event.getId();
+        Consumer<Facets> change;
+        if (event.getAction() == CatalogChangedEvent.Action.DELETED) {
+            change = f -> remove(f, songId);
+        } else {
+            Song song = (Song) event.getEntity();
+            Integer genreId = song.getGenre() != null ? song.getGenre().getGenreID() : null;
+            Integer artistId = song.getArtist() != null ? song.getArtist().getArtistID() : null;
+            Integer albumId = song.getAlbum() != null ? song.getAlbum().getAlbumID() : null;
+            change = f -> {
+                remove(f, songId);
+                add(f, songId, genreId, artistId, albumId);
+            };
+        }
+        lock.writeLock().lock();
+        try {
+            change.accept(facets);
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Snapshot of every song id
+    public IntBitmap all() {
+        lock.readLock().lock();
+        try {
+            return facets.all.copy();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Smallest song id >= from, or -1; lets a caller walk the catalog without copying it
+    public int nextSong(int from) {
+        lock.readLock().lock();
+        try {
+            return facets.all.next(from);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int lastSong() {
+        lock.readLock().lock();
+        try {
+            return facets.all.last();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Keeps the songs of a genre; -1 keeps songs without genre
+    public IntBitmap filterGenre(IntBitmap songs, int genreId) {
+        lock.readLock().lock();
+        try {
+            IntBitmap genre = genreId == -1 ? facets.withoutGenre : facets.byGenre.get(genreId);
+            return genre == null ? new IntBitmap() : songs.and(genre);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Keeps songs without artist that do have a genre
+    public IntBitmap filterWithoutArtist(IntBitmap songs) {
+        lock.readLock().lock();
+        try {
+            return songs.and(facets.withoutArtist).andNot(facets.withoutGenre);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Song ids of an artist or genre, ascending; empty when there are none
+    public int[] songsOfArtist(int artistId) {
+        return songsOf(false, artistId);
+    }
+
+    public int[] songsOfGenre(int genreId) {
+        return songsOf(true, genreId);
+    }
+
+    private int[] songsOf(boolean genre, int key) {
+        lock.readLock().lock();
+        try {
+            IntBitmap songs = (genre ? facets.byGenre : facets.byArtist).get(key);
+            return songs == null ? new int[0] : songs.toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public FacetCounts count(IntBitmap songs) {
+        FacetCounts counts = new FacetCounts();
+        lock.readLock().lock();
+        try {
+            countInto(facets.byGenre, songs, counts.getGenre());
+            countInto(facets.byArtist, songs, counts.getArtist());
+            countInto(facets.byAlbum, songs, counts.getAlbum());
+            counts.setWithoutGenre(facets.withoutGenre.andCardinality(songs));
+            counts.setWithoutArtist(facets.withoutArtist.andCardinality(songs));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return counts;
+    }
+
+    private static void countInto(Map<Integer, IntBitmap> facet, IntBitmap songs, Map<Integer, Integer> out) {
+        for (Map.Entry<Integer, IntBitmap> entry : facet.entrySet()) {
+            int hits = entry.getValue().andCardinality(songs);
+            if (hits > 0) {
+                out.put(entry.getKey(), hits);
+            }
+        }
+    }
+
+    private static void add(Facets f, int songId, Integer genreId, Integer artistId, Integer albumId) {
+        f.all.add(songId);
+        addTo(f.byGenre, genreId, f.withoutGenre, songId);
+        addTo(f.byArtist, artistId, f.withoutArtist, songId);
+        addTo(f.byAlbum, albumId, null, songId);
+        f.refs.put(songId, new int[] { orNone(genreId), orNone(artistId), orNone(albumId) });
+    }
+
+    private static void remove(Facets f, int songId) {
+        int[] ref = f.refs.remove(songId);
+        if (ref == null) {
+            return;
+        }
+        f.all.remove(songId);
+        removeFrom(f.byGenre, ref[0], f.withoutGenre, songId);
+        removeFrom(f.byArtist, ref[1], f.withoutArtist, songId);
+        removeFrom(f.byAlbum, ref[2], null, songId);
+    }
+
+    private static void addTo(Map<Integer, IntBitmap> facet, Integer key, IntBitmap missing, int songId) {
+        if (key != null) {
+            facet.computeIfAbsent(key, k -> new IntBitmap()).add(songId);
+        } else if (missing != null) {
+            missing.add(songId);
+        }
+    }
+
+    private static void removeFrom(Map<Integer, IntBitmap> facet, int key, IntBitmap missing, int songId) {
+        if (key == NONE) {
+            if (missing != null) {
+                missing.remove(songId);
+            }
+            return;
+        }
+        IntBitmap bitmap = facet.get(key);
+        if (bitmap != null) {
+            bitmap.remove(songId);
+            if (bitmap.isEmpty()) {
+                facet.remove(key);
+            }
+        }
+    }
+
+    private static int orNone(Integer id) {
+        return id != null ? id : NONE;
+    }
+}
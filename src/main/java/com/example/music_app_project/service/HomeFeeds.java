@@ -0,0 +1,344 @@
+package com.example.music_app_project.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.music_app_project.dto.GenreShelf;
+import com.example.music_app_project.dto.GenreSummary;
+import com.example.music_app_project.dto.HomeFeed;
+import com.example.music_app_project.dto.RecentPlay;
+import com.example.music_app_project.dto.SongSummary;
+import com.example.music_app_project.event.CollectionChangedEvent;
+import com.example.music_app_project.event.PlaysRecordedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Precomputed home feeds: recent plays, picks similar to the user's favorites,
+// the most played songs of their favorite genres and the newest songs by the
+// artists they favorite most. Each feed is stored in home_feed as gzipped JSON,
+// so serving it is one primary-key lookup and the bytes go out as they are.
+// A nightly job rebuilds every user's feed on a fork-join pool; users who play
+// or change favorites are rebuilt again within eager-refresh-ms.
+@Component
+public class HomeFeeds {
+
+    private static final Logger log = LoggerFactory.getLogger(HomeFeeds.class);
+
+    // Users per fork-join leaf, and per batched write
+    private static final int LEAF_SIZE = 64;
+    // Favorites that drive the picks, newest first
+    private static final int FAVORITE_SEEDS = 50;
+    // Artists whose songs count as new releases for the user
+    private static final int FOLLOWED_ARTISTS = 10;
+    // Recent plays count for less than favorites when picking
+    private static final double RECENT_WEIGHT = 0.5;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RecentPlays recentPlays;
+
+    @Autowired
+    private SongSimilarity songSimilarity;
+
+    @Autowired
+    private PlayCharts playCharts;
+
+    @Autowired
+    private FacetIndex facetIndex;
+
+    @Autowired
+    private SongCache songCache;
+
+    @Value("${music.home-feed.section-size:12}")
+    private int sectionSize;
+
+    @Value("${music.home-feed.genre-shelves:3}")
+    private int genreShelves;
+
+    @Value("${music.home-feed.new-release-days:180}")
+    private int newReleaseDays;
+
+    // 0 uses one thread per core
+    @Value("${music.home-feed.parallelism:0}")
+    private int parallelism;
+
+    private ForkJoinPool pool;
+    private final Set<Integer> active = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threads = new AtomicInteger();
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                p -> {
+                    var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                    thread.setName("home-feed-" + threads.incrementAndGet());
+                    return thread;
+                }, null, false);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // The stored feed, gzipped; built on the spot for users without one. Empty for unknown users.
+    public Optional<byte[]> gzipped(int userId) {
+        List<byte[]> stored = jdbcTemplate.query("SELECT payload FROM home_feed WHERE userid = ?",
+                (rs, rowNum) -> rs.getBytes(1), userId);
+        if (!stored.isEmpty()) {
+            return Optional.of(stored.get(0));
+        }
+        Integer exists = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE id = ?", Integer.class, userId);
+        if (exists == 0) {
+            return Optional.empty();
+        }
+        byte[] payload = serialize(build(userId, new ConcurrentHashMap<>()));
+        store(List.<Object[]>of(new Object[] { userId, payload, LocalDateTime.now() }));
+        return Optional.of(payload);
+    }
+
+    // Synchronized with refreshActive, so an older nightly feed can't overwrite a fresher one
+    @Scheduled(cron = "${music.home-feed.rebuild-cron:0 0 4 * * *}")
+    public synchronized void rebuildAll() {
+        long start = System.currentTimeMillis();
+        List<Integer> userIds = jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id", Integer.class);
+        build(userIds);
+        log.info("Built home feeds for {} users in {} ms", userIds.size(), System.currentTimeMillis() - start);
+    }
+
+    // Rebuilds the feeds of users who played or changed favorites since the last run
+    @Scheduled(fixedDelayString = "${music.home-feed.eager-refresh-ms:10000}")
+    public synchronized void refreshActive() {
+        if (active.isEmpty()) {
+            return;
+        }
+        List<Integer> userIds = new ArrayList<>(active);
+        active.removeAll(userIds);
+        build(userIds);
+    }
+
+    @EventListener
+    public void onPlaysRecorded(PlaysRecordedEvent event) {
+        for (PlaysRecordedEvent.Play play : event.getPlays()) {
+            active.add(play.userId());
+        }
+    }
+
+    @EventListener
+    public void onCollectionChanged(CollectionChangedEvent event) {
+        if (event.getType() == CollectionChangedEvent.Type.FAVORITES) {
+            active.add(event.getOwnerId());
+        }
+    }
+
+    private void build(List<Integer> userIds) {
+        // Genre charts are the same for everyone, so one run ranks each genre once
+        Map<Integer, int[]> genreCharts = new ConcurrentHashMap<>();
+        pool.invoke(new BuildTask(userIds, 0, userIds.size(), genreCharts));
+    }
+
+    private final class BuildTask extends RecursiveAction {
+        private final List<Integer> userIds;
+        private final int from;
+        private final int to;
+        private final Map<Integer, int[]> genreCharts;
+
+        BuildTask(List<Integer> userIds, int from, int to, Map<Integer, int[]> genreCharts) {
+            this.userIds = userIds;
+            this.from = from;
+            this.to = to;
+            this.genreCharts = genreCharts;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_SIZE) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new BuildTask(userIds, from, mid, genreCharts), new BuildTask(userIds, mid, to, genreCharts));
+                return;
+            }
+            List<Object[]> rows = new ArrayList<>(to - from);
+            for (int userId : userIds.subList(from, to)) {
+                try {
+                    rows.add(new Object[] { userId, serialize(build(userId, genreCharts)), LocalDateTime.now() });
+                } catch (RuntimeException e) {
+                    // One bad feed shouldn't keep the others from being stored
+                    log.warn("Could not build home feed for user {}", userId, e);
+                }
+            }
+            store(rows);
+        }
+    }
+
+    private HomeFeed build(int userId, Map<Integer, int[]> genreCharts) {
+        List<SongSummary> recent = recentSongs(userId);
+        List<Integer> favorites = jdbcTemplate.queryForList(
+                "SELECT songid FROM user_favorites WHERE userid = ? ORDER BY favorited_at DESC LIMIT ?",
+                Integer.class, userId, FAVORITE_SEEDS);
+
+        // Songs the user already knows are left out of every other section
+        Set<Integer> known = new HashSet<>(favorites);
+        Map<Integer, Double> picks = new HashMap<>();
+        Map<Integer, Integer> genres = new HashMap<>();
+        Map<Integer, Integer> artists = new HashMap<>();
+        for (int songId : favorites) {
+            addNeighbors(picks, songId, 1.0);
+            genres.merge(playCharts.genreOf(songId), 2, Integer::sum);
+            artists.merge(playCharts.artistOf(songId), 2, Integer::sum);
+        }
+        for (SongSummary song : recent) {
+            known.add(song.getSongID());
+            addNeighbors(picks, song.getSongID(), RECENT_WEIGHT);
+            genres.merge(playCharts.genreOf(song.getSongID()), 1, Integer::sum);
+            artists.merge(playCharts.artistOf(song.getSongID()), 1, Integer::sum);
+        }
+        genres.remove(0);
+        artists.remove(0);
+
+        List<Integer> ranked = picks.entrySet().stream()
+                .filter(e -> !known.contains(e.getKey()))
+                .sorted(Map.Entry.<Integer, Double>comparingByValue().reversed())
+                .map(Map.Entry::getKey)
+                .toList();
+        List<SongSummary> becauseYouLiked = hydrate(ranked, Set.of(), sectionSize);
+
+        List<GenreShelf> shelves = new ArrayList<>();
+        for (int genreId : strongest(genres, genreShelves)) {
+            GenreSummary genre = playCharts.genre(genreId);
+            int[] chart = genreCharts.computeIfAbsent(genreId, this::genreChart);
+            List<SongSummary> songs = hydrate(Arrays.stream(chart).boxed().toList(), known, sectionSize);
+            if (genre != null && !songs.isEmpty()) {
+                shelves.add(new GenreShelf(genre, songs));
+            }
+        }
+
+        return new HomeFeed(userId, LocalDateTime.now(), recent, becauseYouLiked, shelves,
+                newReleases(strongest(artists, FOLLOWED_ARTISTS), known));
+    }
+
+    // From the user's recent-plays ring when it is loaded, else read directly
+    private List<SongSummary> recentSongs(int userId) {
+        Optional<List<RecentPlay>> loaded = recentPlays.recentIfLoaded(userId, sectionSize);
+        if (loaded.isPresent()) {
+            List<SongSummary> recent = new ArrayList<>();
+            for (RecentPlay play : loaded.get()) {
+                recent.add(play.getSong());
+            }
+            return recent;
+        }
+        List<Integer> songIds = jdbcTemplate.queryForList(
+                "SELECT songid FROM play_history WHERE userid = ? AND played_at IS NOT NULL ORDER BY historyid DESC LIMIT ?",
+                Integer.class, userId, sectionSize);
+        return hydrate(songIds, Set.of(), sectionSize);
+    }
+
+    private void addNeighbors(Map<Integer, Double> picks, int songId, double weight) {
+        SongSimilarity.Neighbors neighbors = songSimilarity.neighbors(songId);
+        for (int i = 0; i < neighbors.size(); i++) {
+            picks.merge(neighbors.songIds()[i], weight * neighbors.scores()[i], Double::sum);
+        }
+    }
+
+    // Songs of the genre by all-time plays, enough to fill a shelf after skipping known ones
+    private int[] genreChart(int genreId) {
+        int[] songIds = facetIndex.songsOfGenre(genreId);
+        Map<Integer, Long> plays = new HashMap<>(songIds.length * 2);
+        for (int songId : songIds) {
+            plays.put(songId, playCharts.allTimePlays(songId));
+        }
+        return Arrays.stream(songIds).boxed()
+                .sorted(Comparator.comparing((Integer id) -> plays.get(id)).reversed())
+                .limit(sectionSize * 5L)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    // The user has no follows, so the artists they favorite and play most stand in.
+    // One query picks the newest songs of all of them; only the winners are hydrated.
+    private List<SongSummary> newReleases(List<Integer> artistIds, Set<Integer> known) {
+        if (artistIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Object> args = new ArrayList<>(artistIds);
+        args.add(LocalDate.now().minusDays(newReleaseDays));
+        // Enough rows to fill the section even if every known song is among them
+        args.add(sectionSize + known.size());
+        List<Integer> songIds = jdbcTemplate.queryForList(
+                "SELECT songid FROM songs WHERE artistid IN (" + String.join(", ", Collections.nCopies(artistIds.size(), "?"))
+                        + ") AND release_date >= ? ORDER BY release_date DESC, songid LIMIT ?",
+                Integer.class, args.toArray());
+        return hydrate(songIds, known, sectionSize);
+    }
+
+    private List<SongSummary> hydrate(List<Integer> songIds, Set<Integer> skip, int limit) {
+        List<SongSummary> songs = new ArrayList<>(limit);
+        for (int songId : songIds) {
+            if (songs.size() >= limit) {
+                break;
+            }
+            if (!skip.contains(songId)) {
+                songCache.get(songId).ifPresent(songs::add);
+            }
+        }
+        return songs;
+    }
+
+    private static List<Integer> strongest(Map<Integer, Integer> weights, int limit) {
+        return weights.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private byte[] serialize(HomeFeed feed) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, feed);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void store(List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("MERGE INTO home_feed (userid, payload, built_at) KEY (userid) VALUES (?, ?, ?)", rows);
+        }
+    }
+}
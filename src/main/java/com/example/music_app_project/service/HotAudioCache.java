@@ -0,0 +1,225 @@
+package com.example.music_app_project.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.example.music_app_project.dto.SongSummary;
+
+// Memory-mapped copies of the most played audio files. Admission follows the
+// all-time song chart, refreshed on a schedule; when the mapped total would
+// exceed the byte budget a file only displaces files ranked below it, lowest
+// first, and files that left the chart go first by least recent stream.
+// A hit needs no stat: with sendfile the mapping only keeps the pages resident,
+// otherwise it is written straight from the mapping. Lookups take no lock; only
+// the refresh thread changes the entries.
+@Component
+public class HotAudioCache {
+
+    public static class Entry {
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private final long lastModified;
+        private final AtomicLong hits = new AtomicLong();
+        private volatile long lastAccess;
+
+        Entry(Path path, MappedByteBuffer buffer, long lastModified) {
+            this.path = path;
+            this.buffer = buffer;
+            this.lastModified = lastModified;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public long getLength() {
+            return buffer.capacity();
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public long getHits() {
+            return hits.get();
+        }
+
+        // Whether the OS reports all pages resident (a hint, see MappedByteBuffer.isLoaded)
+        public boolean isLoaded() {
+            return buffer.isLoaded();
+        }
+
+        // Independent view of [start, start + count), safe to use from any thread
+        public ByteBuffer slice(long start, long count) {
+            return buffer.slice((int) start, (int) count);
+        }
+    }
+
+    @Autowired
+    private PlayCharts playCharts;
+
+    @Autowired
+    private SongCache songCache;
+
+    @Autowired
+    private UploadsResolver uploadsResolver;
+
+    @Value("${music.hot-audio.max-bytes:256MB}")
+    private DataSize maxBytes;
+
+    @Value("${music.hot-audio.candidates:200}")
+    private int candidates;
+
+    private final Map<Path, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong mappedBytes = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public Entry get(Path file) {
+        Entry entry = entries.get(file);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        entry.hits.incrementAndGet();
+        entry.lastAccess = System.nanoTime();
+        return entry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${music.hot-audio.refresh-interval-ms:300000}",
+               initialDelayString = "${music.hot-audio.refresh-interval-ms:300000}")
+    public synchronized void refresh() {
+        dropChanged();
+        long budget = maxBytes.toBytes();
+        // Rank per file, best first; songs sharing a stored file keep the better rank
+        Map<Path, Integer> ranks = new LinkedHashMap<>();
+        for (int songId : playCharts.mostPlayedSongs(candidates)) {
+            songCache.get(songId)
+                    .map(SongSummary::getAudioFile)
+                    .map(uploadsResolver::resolve)
+                    .ifPresent(file -> ranks.putIfAbsent(file, ranks.size()));
+        }
+        for (Map.Entry<Path, Integer> candidate : ranks.entrySet()) {
+            Path file = candidate.getKey();
+            if (entries.containsKey(file)) {
+                continue;
+            }
+            try {
+                long size = Files.size(file);
+                if (size == 0 || size > Math.min(budget, Integer.MAX_VALUE)
+                        || !makeRoom(size, candidate.getValue(), ranks, budget)) {
+                    continue;
+                }
+                Entry entry = map(file);
+                // Paging the file in happens here, on the refresh thread, not on a request
+                entry.buffer.load();
+                entries.put(file, entry);
+                mappedBytes.addAndGet(entry.getLength());
+            } catch (IOException e) {
+                // deleted or unreadable since it was resolved, try again next refresh
+            }
+        }
+    }
+
+    public List<Entry> entries() {
+        return new ArrayList<>(entries.values());
+    }
+
+    public long getMappedBytes() {
+        return mappedBytes.get();
+    }
+
+    public long getMaxBytes() {
+        return maxBytes.toBytes();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    // Path as stored in Song.audioFile, for reporting
+    public String relativize(Path file) {
+        return "/" + uploadsResolver.getRoot().relativize(file).toString().replace('\\', '/');
+    }
+
+    private Entry map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new Entry(file, buffer, Files.getLastModifiedTime(file).toMillis());
+        }
+    }
+
+    // Drops mapped files ranked below rank until size fits the budget; false, with
+    // nothing dropped, when even dropping all of them would not make enough room
+    private boolean makeRoom(long size, int rank, Map<Path, Integer> ranks, long budget) {
+        long needed = mappedBytes.get() + size - budget;
+        if (needed <= 0) {
+            return true;
+        }
+        List<Entry> lower = new ArrayList<>();
+        long freeable = 0;
+        for (Entry entry : entries.values()) {
+            if (ranks.getOrDefault(entry.path, Integer.MAX_VALUE) > rank) {
+                lower.add(entry);
+                freeable += entry.getLength();
+            }
+        }
+        if (freeable < needed) {
+            return false;
+        }
+        lower.sort(Comparator.<Entry>comparingInt(e -> ranks.getOrDefault(e.path, Integer.MAX_VALUE)).reversed()
+                .thenComparingLong(e -> e.lastAccess));
+        // Dropped mappings are unmapped when the buffer is garbage collected
+        for (Entry entry : lower) {
+            if (needed <= 0) {
+                break;
+            }
+            drop(entry);
+            needed -= entry.getLength();
+        }
+        return true;
+    }
+
+    private void drop(Entry entry) {
+        if (entries.remove(entry.path, entry)) {
+            mappedBytes.addAndGet(-entry.getLength());
+        }
+    }
+
+    // Files rewritten in place would be served stale from the old mapping
+    private void dropChanged() {
+        for (Entry entry : entries()) {
+            boolean unchanged;
+            try {
+                unchanged = Files.size(entry.path) == entry.getLength()
+                        && Files.getLastModifiedTime(entry.path).toMillis() == entry.lastModified;
+            } catch (IOException e) {
+                unchanged = false;
+            }
+            if (!unchanged) {
+                drop(entry);
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.music_app_project.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.music_app_project.event.PlaysRecordedEvent;
+import com.example.music_app_project.model.PlayHistory;
+import com.example.music_app_project.util.HyperLogLog;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Approximate unique listeners per song and per artist, as HyperLogLog sketches
+// per day and over all time. Sketches follow PlaysRecordedEvent and dirty ones
+// are written to listener_sketch every flush-interval-ms. Because adding a user
+// twice leaves a sketch unchanged, startup simply replays the raw plays since
+// the last flush on top of the stored sketches; the first start also replays
+// the daily rollups of purged history. Day sketches older than memory-days are
+// dropped from memory and read back from the table on demand.
+@Component
+@DependsOn("playHistoryRetention")
+public class ListenerCounts {
+
+    public enum Kind {
+        SONG, ARTIST
+    }
+
+    // Estimate with its standard error, as a fraction of the estimate
+    public record Estimate(long uniqueListeners, double standardError) {
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(ListenerCounts.class);
+
+    private static final int ALL_TIME = -1;
+
+    // Plays written just before the last flush may have missed it
+    private static final long REPLAY_MARGIN_SECONDS = 300;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlayCharts playCharts;
+
+    @Value("${music.listeners.memory-days:90}")
+    private int memoryDays;
+
+    private final Map<Long, HyperLogLog> sketches = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void init() {
+        long oldest = LocalDate.now().minusDays(memoryDays).toEpochDay();
+        jdbcTemplate.query("SELECT kind, itemid, bucket, registers FROM listener_sketch WHERE bucket = ? OR bucket >= ?",
+                rs -> {
+                    sketches.put(key(rs.getInt(1), rs.getInt(2), rs.getInt(3)), HyperLogLog.fromBytes(rs.getBytes(4)));
+                },
+                ALL_TIME, oldest);
+        Timestamp flushed = jdbcTemplate.queryForObject("SELECT MAX(updated_at) FROM listener_sketch", Timestamp.class);
+        // First start: build everything still in play_history, plus the daily
+        // rollups of history that retention already purged
+        LocalDateTime since = flushed != null
+                ? flushed.toLocalDateTime().minusSeconds(REPLAY_MARGIN_SECONDS)
+                : LocalDateTime.of(1970, 1, 1, 0, 0);
+        int[] replayed = new int[1];
+        if (flushed == null) {
+            jdbcTemplate.query("SELECT userid, songid, play_date FROM play_daily",
+                    rs -> {
+                        record(rs.getInt(1), rs.getInt(2), rs.getDate(3).toLocalDate());
+                        replayed[0]++;
+                    });
+        }
+        jdbcTemplate.query("SELECT userid, songid, played_at FROM play_history WHERE played_month >= ? AND played_at >= ?",
+                rs -> {
+                    record(rs.getInt(1), rs.getInt(2), rs.getTimestamp(3).toLocalDateTime().toLocalDate());
+                    replayed[0]++;
+                },
+                PlayHistory.monthOf(since), since);
+        if (replayed[0] > 0) {
+            log.info("Replayed {} plays into listener sketches", replayed[0]);
+        }
+    }
+
+    @EventListener
+    public void onPlaysRecorded(PlaysRecordedEvent event) {
+        for (PlaysRecordedEvent.Play play : event.getPlays()) {
+            record(play.userId(), play.songId(), play.playedAt().toLocalDate());
+        }
+    }
+
+    // Unique listeners over all time, or over the days from..to (inclusive)
+    public Estimate estimate(Kind kind, int id, LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return estimate(copy(key(kind.ordinal(), id, ALL_TIME)));
+        }
+        long first = from != null ? from.toEpochDay() : LocalDate.now().minusDays(memoryDays).toEpochDay();
+        long last = Math.min(to != null ? to.toEpochDay() : Long.MAX_VALUE, LocalDate.now().toEpochDay());
+        long inMemory = LocalDate.now().minusDays(memoryDays).toEpochDay();
+        HyperLogLog merged = new HyperLogLog();
+        for (long day = Math.max(first, inMemory); day <= last; day++) {
+            HyperLogLog sketch = sketches.get(key(kind.ordinal(), id, (int) day));
+            if (sketch != null) {
+                synchronized (sketch) {
+                    merged.merge(sketch);
+                }
+            }
+        }
+        if (first < inMemory) {
+            jdbcTemplate.query("SELECT registers FROM listener_sketch WHERE kind = ? AND itemid = ? AND bucket BETWEEN ? AND ?",
+                    rs -> {
+                        merged.merge(HyperLogLog.fromBytes(rs.getBytes(1)));
+                    },
+                    kind.ordinal(), id, first, Math.min(last, inMemory - 1));
+        }
+        return estimate(merged);
+    }
+
+    @Scheduled(fixedDelayString = "${music.listeners.flush-interval-ms:60000}")
+    public void flush() {
+        List<Object[]> rows = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Long key : dirty) {
+            // Cleared before serializing, so a concurrent add marks it again
+            dirty.remove(key);
+            HyperLogLog sketch = sketches.get(key);
+            if (sketch != null) {
+                byte[] registers;
+                synchronized (sketch) {
+                    registers = sketch.toBytes();
+                }
+                rows.add(new Object[] { (int) (key >>> 56), (int) (key >>> 24), bucket(key), registers, now });
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("MERGE INTO listener_sketch (kind, itemid, bucket, registers, updated_at) " +
+                    "KEY (kind, itemid, bucket) VALUES (?, ?, ?, ?, ?)", rows);
+        }
+        long oldest = LocalDate.now().minusDays(memoryDays).toEpochDay();
+        sketches.keySet().removeIf(key -> bucket(key) != ALL_TIME && bucket(key) < oldest && !dirty.contains(key));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    private void record(int userId, int songId, LocalDate day) {
+        int artistId = playCharts.artistOf(songId);
+        int bucket = (int) day.toEpochDay();
+        add(key(Kind.SONG.ordinal(), songId, bucket), userId);
+        add(key(Kind.SONG.ordinal(), songId, ALL_TIME), userId);
+        if (artistId != 0) {
+            add(key(Kind.ARTIST.ordinal(), artistId, bucket), userId);
+            add(key(Kind.ARTIST.ordinal(), artistId, ALL_TIME), userId);
+        }
+    }
+
+    private void add(long key, int userId) {
+        HyperLogLog sketch = sketches.computeIfAbsent(key, k -> new HyperLogLog());
+        synchronized (sketch) {
+            sketch.add(userId);
+        }
+        dirty.add(key);
+    }
+
+    private HyperLogLog copy(long key) {
+        HyperLogLog copy = new HyperLogLog();
+        HyperLogLog sketch = sketches.get(key);
+        if (sketch != null) {
+            synchronized (sketch) {
+                copy.merge(sketch);
+            }
+        }
+        return copy;
+    }
+
+    private static Estimate estimate(HyperLogLog sketch) {
+        return new Estimate(sketch.estimate(), HyperLogLog.STANDARD_ERROR);
+    }
+
+    // kind in the top 8 bits, item id in the next 32, bucket in the low 24
+    private static long key(int kind, int id, int bucket) {
+        return (long) kind << 56 | (id & 0xFFFFFFFFL) << 24 | (bucket & 0xFFFFFFL);
+    }
+
+    private static int bucket(long key) {
+        int bucket = (int) (key & 0xFFFFFF);
+        return bucket == 0xFFFFFF ? ALL_TIME : bucket;
+    }
+}
@@ -0,0 +1,430 @@
+package com.example.music_app_project.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import com.example.music_app_project.dto.ArtistSummary;
+import com.example.music_app_project.dto.GenreSummary;
+import com.example.music_app_project.dto.SongIndexRow;
+import com.example.music_app_project.event.CatalogChangedEvent;
+import com.example.music_app_project.event.CatalogImportedEvent;
+import com.example.music_app_project.event.PlaysRecordedEvent;
+import com.example.music_app_project.model.Artist;
+import com.example.music_app_project.model.Genre;
+import com.example.music_app_project.model.PlayHistory;
+import com.example.music_app_project.model.Song;
+import com.example.music_app_project.repository.ArtistRepository;
+import com.example.music_app_project.repository.GenreRepository;
+import com.example.music_app_project.repository.SongRepository;
+import com.example.music_app_project.util.IntLongMap;
+import com.example.music_app_project.util.SlidingWindowCounter;
+
+import jakarta.annotation.PostConstruct;
+
+// Play counts per song, artist and genre over sliding windows, kept in memory.
+// Hourly buckets back the 24h and 7d charts, daily buckets the 30d chart; each
+// window keeps a running total so a chart is a top-N over one map. Counts are
+// rebuilt from play_history (and play_daily for purged days) at startup and
+// then follow PlaysRecordedEvent.
+@Component
+public class PlayCharts {
+
+    public enum Dimension {
+        SONG, ARTIST, GENRE
+    }
+
+    public enum Window {
+        DAY("24h"), WEEK("7d"), MONTH("30d"), ALL_TIME("all");
+
+        private final String label;
+
+        Window(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public static Window parse(String label) {
+            for (Window window : values()) {
+                if (window.label.equalsIgnoreCase(label)) {
+                    return window;
+                }
+            }
+            throw new IllegalArgumentException("Unknown chart window: " + label);
+        }
+    }
+
+    // Ids and play counts of a chart, best first
+    public record Ranking(int[] ids, long[] plays) {
+
+        public int size() {
+            return ids.length;
+        }
+    }
+
+    private static final long HOUR = 3600;
+    private static final long DAY = 24 * HOUR;
+
+    private static final class Counters {
+        final SlidingWindowCounter day;
+        final SlidingWindowCounter week;
+        final SlidingWindowCounter month;
+        final IntLongMap allTime = new IntLongMap();
+
+        Counters(long now) {
+            day = new SlidingWindowCounter(HOUR, 24, now);
+            week = new SlidingWindowCounter(HOUR, 24 * 7, now);
+            month = new SlidingWindowCounter(DAY, 30, now);
+        }
+
+        void add(int id, long time) {
+            day.add(id, time, 1);
+            week.add(id, time, 1);
+            month.add(id, time, 1);
+            allTime.addTo(id, 1);
+        }
+
+        void advance(long now) {
+            day.advance(now);
+            week.advance(now);
+            month.advance(now);
+        }
+
+        IntLongMap totals(Window window) {
+            return switch (window) {
+                case DAY -> day.totals();
+                case WEEK -> week.totals();
+                case MONTH -> month.totals();
+                case ALL_TIME -> allTime;
+            };
+        }
+    }
+
+    private record Cached(long computedAt, Ranking ranking) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @Autowired
+    private ArtistRepository artistRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private PlayHistoryRetention playHistoryRetention;
+
+    // Longest chart that can be requested
+    @Value("${music.charts.max-size:100}")
+    private int maxSize;
+
+    // How long a computed chart is served before it is ranked again
+    @Value("${music.charts.refresh-ms:1000}")
+    private long refreshMs;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Dimension, Counters> counters = new EnumMap<>(Dimension.class);
+    private final Map<String, Cached> rankings = new ConcurrentHashMap<>();
+
+    // Artist and genre of each song, indexed by song id; 0 when the song has none
+    private int[] artistOf = new int[0];
+    private int[] genreOf = new int[0];
+    private final Map<Integer, ArtistSummary> artists = new HashMap<>();
+    private final Map<Integer, GenreSummary> genres = new HashMap<>();
+
+    // Loaded before the web server starts, so no play can be written between
+    // reading the table and following the events
+    @PostConstruct
+    void init() {
+        loadCatalog();
+        long now = now();
+        lock.writeLock().lock();
+        try {
+            for (Dimension dimension : Dimension.values()) {
+                counters.put(dimension, new Counters(now));
+            }
+            LocalDateTime monthAgo = LocalDateTime.now().minusDays(30);
+            jdbcTemplate.query("SELECT songid, played_at FROM play_history WHERE played_month >= ? AND played_at >= ?",
+                    rs -> {
+                        record(rs.getInt(1), rs.getObject(2, LocalDateTime.class).toEpochSecond(ZoneOffset.UTC), false);
+                    },
+                    PlayHistory.monthOf(monthAgo), monthAgo);
+            // All-time counts: rolled-up days from play_daily, later days from the raw rows
+            LocalDate rolledThrough = playHistoryRetention.rolledThrough();
+            RowCallbackHandler allTime = rs -> {
+                int songId = rs.getInt(1);
+                long plays = rs.getLong(2);
+                counters.get(Dimension.SONG).allTime.addTo(songId, plays);
+                addIfPresent(Dimension.ARTIST, lookup(artistOf, songId), plays);
+                addIfPresent(Dimension.GENRE, lookup(genreOf, songId), plays);
+            };
+            if (rolledThrough == null) {
+                jdbcTemplate.query("SELECT songid, COUNT(*) FROM play_history GROUP BY songid", allTime);
+            } else {
+                LocalDateTime rawFrom = rolledThrough.plusDays(1).atStartOfDay();
+                jdbcTemplate.query("SELECT songid, SUM(plays) FROM play_daily WHERE play_date <= ? GROUP BY songid",
+                        allTime, rolledThrough);
+                jdbcTemplate.query("SELECT songid, COUNT(*) FROM play_history " +
+                        "WHERE played_month >= ? AND played_at >= ? GROUP BY songid",
+                        allTime, PlayHistory.monthOf(rawFrom), rawFrom);
+                // Legacy rows without a play time are never rolled up
+                jdbcTemplate.query("SELECT songid, COUNT(*) FROM play_history WHERE played_month IS NULL GROUP BY songid",
+                        allTime);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(CatalogImportedEvent.class)
+    public void loadCatalog() {
+        int[] artistIds = new int[0];
+        int[] genreIds = new int[0];
+        for (SongIndexRow row : songRepository.findIndexRows()) {
+            int songId = row.getSongID();
+            if (songId >= artistIds.length) {
+                artistIds = Arrays.copyOf(artistIds, Math.max(songId + 1, artistIds.length * 2));
+                genreIds = Arrays.copyOf(genreIds, artistIds.length);
+            }
+            artistIds[songId] = orZero(row.getArtistID());
+            genreIds[songId] = orZero(row.getGenreID());
+        }
+        Map<Integer, ArtistSummary> artistSummaries = new HashMap<>();
+        for (ArtistSummary artist : artistRepository.findAllSummaries()) {
+            artistSummaries.put(artist.getArtistID(), artist);
+        }
+        Map<Integer, GenreSummary> genreSummaries = new HashMap<>();
+        for (Genre genre : genreRepository.findAll()) {
+            genreSummaries.put(genre.getGenreID(), new GenreSummary(genre.getGenreID(), genre.getGenreName()));
+        }
+        lock.writeLock().lock();
+        try {
+            artistOf = artistIds;
+            genreOf = genreIds;
+            artists.clear();
+            artists.putAll(artistSummaries);
+            genres.clear();
+            genres.putAll(genreSummaries);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        boolean deleted = event.getAction() == CatalogChangedEvent.Action.DELETED;
+        lock.writeLock().lock();
+        try {
+            switch (event.getType()) {
+                case SONG -> {
+                    Song song = deleted ? null : (Song) event.getEntity();
+                    setSong(event.getId(),
+                            song != null && song.getArtist() != null ? orZero(song.getArtist().getArtistID()) : 0,
+                            song != null && song.getGenre() != null ? orZero(song.getGenre().getGenreID()) : 0);
+                }
+                case ARTIST -> {
+                    if (deleted) {
+                        artists.remove(event.getId());
+                    } else {
+                        Artist artist = (Artist) event.getEntity();
+                        artists.put(event.getId(), new ArtistSummary(artist.getArtistID(), artist.getName(),
+                                artist.getCountry(), artist.getBirthDate()));
+                    }
+                }
+                case GENRE -> {
+                    if (deleted) {
+                        genres.remove(event.getId());
+                    } else {
+                        Genre genre = (Genre) event.getEntity();
+                        genres.put(event.getId(), new GenreSummary(genre.getGenreID(), genre.getGenreName()));
+                    }
+                }
+                case ALBUM -> {
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onPlaysRecorded(PlaysRecordedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (PlaysRecordedEvent.Play play : event.getPlays()) {
+                record(play.songId(), play.playedAt().toEpochSecond(ZoneOffset.UTC), true);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Top of the chart, at most max-size entries; re-ranked at most every refresh-ms
+    public Ranking top(Dimension dimension, Window window, int limit) {
+        String key = dimension + "/" + window;
+        long nowMillis = System.currentTimeMillis();
+        Cached cached = rankings.get(key);
+        if (cached == null || nowMillis - cached.computedAt() >= refreshMs) {
+            cached = new Cached(nowMillis, rank(dimension, window));
+            rankings.put(key, cached);
+        }
+        Ranking ranking = cached.ranking();
+        int n = Math.max(0, Math.min(limit, ranking.size()));
+        return n == ranking.size() ? ranking
+                : new Ranking(Arrays.copyOf(ranking.ids(), n), Arrays.copyOf(ranking.plays(), n));
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    // All-time plays of a song, including purged days
+    public long allTimePlays(int songId) {
+        lock.readLock().lock();
+        try {
+            return counters.get(Dimension.SONG).allTime.get(songId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Song ids by all-time plays, most played first; not capped at max-size
+    public int[] mostPlayedSongs(int limit) {
+        lock.readLock().lock();
+        try {
+            return counters.get(Dimension.SONG).allTime.top(limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Artist of the song, 0 when it has none or is unknown
+    public int artistOf(int songId) {
+        lock.readLock().lock();
+        try {
+            return lookup(artistOf, songId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Genre of the song, 0 when it has none or is unknown
+    public int genreOf(int songId) {
+        lock.readLock().lock();
+        try {
+            return lookup(genreOf, songId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public ArtistSummary artist(int id) {
+        lock.readLock().lock();
+        try {
+            return artists.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public GenreSummary genre(int id) {
+        lock.readLock().lock();
+        try {
+            return genres.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Ranking rank(Dimension dimension, Window window) {
+        // Expiring buckets changes the totals, so this needs the write lock
+        lock.writeLock().lock();
+        try {
+            Counters c = counters.get(dimension);
+            c.advance(now());
+            IntLongMap totals = c.totals(window);
+            int[] ids = totals.top(maxSize);
+            long[] plays = new long[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                plays[i] = totals.get(ids[i]);
+            }
+            return new Ranking(ids, plays);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void record(int songId, long time, boolean allTime) {
+        add(Dimension.SONG, songId, time, allTime);
+        int artistId = lookup(artistOf, songId);
+        if (artistId != 0) {
+            add(Dimension.ARTIST, artistId, time, allTime);
+        }
+        int genreId = lookup(genreOf, songId);
+        if (genreId != 0) {
+            add(Dimension.GENRE, genreId, time, allTime);
+        }
+    }
+
+    private void add(Dimension dimension, int id, long time, boolean allTime) {
+        Counters c = counters.get(dimension);
+        if (allTime) {
+            c.add(id, time);
+        } else {
+            c.day.add(id, time, 1);
+            c.week.add(id, time, 1);
+            c.month.add(id, time, 1);
+        }
+    }
+
+    private void addIfPresent(Dimension dimension, int id, long plays) {
+        if (id != 0) {
+            counters.get(dimension).allTime.addTo(id, plays);
+        }
+    }
+
+    private void setSong(int songId, int artistId, int genreId) {
+        if (songId >= artistOf.length) {
+            if (artistId == 0 && genreId == 0) {
+                return;
+            }
+            artistOf = Arrays.copyOf(artistOf, Math.max(songId + 1, artistOf.length * 2));
+            genreOf = Arrays.copyOf(genreOf, artistOf.length);
+        }
+        artistOf[songId] = artistId;
+        genreOf[songId] = genreId;
+    }
+
+    private static int lookup(int[] ids, int songId) {
+        return songId >= 0 && songId < ids.length ? ids[songId] : 0;
+    }
+
+    private static int orZero(Integer id) {
+        return id != null ? id : 0;
+    }
+
+    // Play times are local wall-clock times, so buckets line up with local hours and days
+    private static long now() {
+        return LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.music_app_project.service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.music_app_project.model.PlayHistory;
+
+import jakarta.annotation.PostConstruct;
+
+// Keeps play_history bounded. Every night finished days are rolled up into
+// play_daily (plays per user, song and day), then raw rows older than the
+// retention period are deleted month by month. Aggregates are written with
+// MERGE, so a day that is rolled up twice ends up with the same counts.
+@Component
+@DependsOn("entityManagerFactory")
+public class PlayHistoryRetention {
+
+    private static final Logger log = LoggerFactory.getLogger(PlayHistoryRetention.class);
+
+    private static final String ROLLUP =
+            "MERGE INTO play_daily (userid, songid, play_date, plays) KEY (userid, songid, play_date) " +
+            "SELECT userid, songid, CAST(played_at AS DATE), COUNT(*) FROM play_history " +
+            "WHERE played_month = ? AND played_at >= ? AND played_at < ? " +
+            "GROUP BY userid, songid, CAST(played_at AS DATE)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Months of raw rows kept besides the current one. At least 2, because the
+    // 30-day charts and recent plays are rebuilt from raw rows.
+    @Value("${music.play-history.retention-months:6}")
+    private int retentionMonths;
+
+    @Value("${music.play-history.purge-batch-size:10000}")
+    private int purgeBatchSize;
+
+    // Rows written before the partition key existed; filled before anything reads by month.
+    // The entityManagerFactory dependency makes sure ddl-auto has added the column.
+    @PostConstruct
+    void backfillMonths() {
+        int updated = jdbcTemplate.update("UPDATE play_history SET played_month = YEAR(played_at) * 100 + MONTH(played_at) " +
+                "WHERE played_month IS NULL AND played_at IS NOT NULL");
+        if (updated > 0) {
+            log.info("Set played_month on {} play history rows", updated);
+        }
+    }
+
+    @Scheduled(cron = "${music.play-history.rollup-cron:0 15 3 * * *}")
+    public void run() {
+        rollup();
+        purge();
+    }
+
+    // Last day whose plays are in play_daily, or null before the first rollup
+    public LocalDate rolledThrough() {
+        Date day = jdbcTemplate.queryForObject("SELECT MAX(play_date) FROM play_daily", Date.class);
+        return day != null ? day.toLocalDate() : null;
+    }
+
+    // Rolls up every finished day after the last rolled-up one, a day per statement
+    private int rollup() {
+        LocalDate last = rolledThrough();
+        LocalDate from;
+        if (last != null) {
+            from = last.plusDays(1);
+        } else {
+            LocalDateTime first = jdbcTemplate.queryForObject(
+                    "SELECT MIN(played_at) FROM play_history " +
+                    "WHERE played_month = (SELECT MIN(played_month) FROM play_history)", LocalDateTime.class);
+            if (first == null) {
+                return 0;
+            }
+            from = first.toLocalDate();
+        }
+        LocalDate today = LocalDate.now();
+        int rows = 0;
+        for (LocalDate day = from; day.isBefore(today); day = day.plusDays(1)) {
+            rows += jdbcTemplate.update(ROLLUP, PlayHistory.monthOf(day.atStartOfDay()),
+                    day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+        }
+        if (rows > 0) {
+            log.info("Rolled up play history from {} to {} into {} daily rows", from, today.minusDays(1), rows);
+        }
+        return rows;
+    }
+
+    // Deletes whole months past the retention period; run() rolls them up first
+    private int purge() {
+        LocalDate keepFrom = LocalDate.now().withDayOfMonth(1).minusMonths(Math.max(2, retentionMonths));
+        int cutoff = PlayHistory.monthOf(keepFrom.atStartOfDay());
+        int deleted = 0;
+        int batch;
+        // Small statements so the purge never holds long locks on the table
+        do {
+            batch = jdbcTemplate.update("DELETE FROM play_history WHERE played_month < ? LIMIT ?", cutoff, purgeBatchSize);
+            deleted += batch;
+        } while (batch == purgeBatchSize);
+        if (deleted > 0) {
+            log.info("Purged {} play history rows before {}", deleted, keepFrom);
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,312 @@
+package com.example.music_app_project.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.music_app_project.event.CatalogChangedEvent;
+import com.example.music_app_project.event.CatalogImportedEvent;
+import com.example.music_app_project.event.PlaysRecordedEvent;
+import com.example.music_app_project.model.PlayHistory;
+import com.example.music_app_project.repository.SongRepository;
+import com.example.music_app_project.repository.UserRepository;
+import com.example.music_app_project.util.IntBitmap;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Write-behind ingestion of play events. Requests are validated against cached
+// user and song id sets and queued; a single flusher thread writes the queue in
+// JDBC batches once music.play-history.batch-size events are waiting or
+// flush-interval-ms has passed since the oldest one. A full queue pushes back on
+// callers, and shutdown drains whatever is still queued.
+@Component
+public class PlayIngestor {
+
+    public enum Result {
+        ACCEPTED, INVALID, BUSY
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(PlayIngestor.class);
+
+    private static final String INSERT =
+            "INSERT INTO play_history (userid, songid, played_at, played_month) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @Value("${music.play-history.write-behind:false}")
+    private boolean writeBehind;
+
+    @Value("${music.play-history.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${music.play-history.batch-size:500}")
+    private int batchSize;
+
+    @Value("${music.play-history.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    // How long a caller waits for room in a full queue before getting BUSY
+    @Value("${music.play-history.offer-timeout-ms:50}")
+    private long offerTimeoutMs;
+
+    private BlockingQueue<PlaysRecordedEvent.Play> queue;
+    private Thread flusher;
+    private volatile boolean closed;
+
+    // Ids known to exist; misses are checked against the database once
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile IntBitmap userIds = new IntBitmap();
+    private volatile IntBitmap songIds = new IntBitmap();
+    private volatile boolean idsLoaded;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong invalid = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        if (!writeBehind) {
+            return;
+        }
+        flusher = new Thread(this::runFlusher, "play-history-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @EventListener({ ApplicationReadyEvent.class, CatalogImportedEvent.class })
+    public void loadIds() {
+        IntBitmap users = IntBitmap.of(jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id", Integer.class)
+                .stream().mapToInt(Integer::intValue).toArray());
+        IntBitmap songs = IntBitmap.of(jdbcTemplate.queryForList("SELECT songid FROM songs ORDER BY songid", Integer.class)
+                .stream().mapToInt(Integer::intValue).toArray());
+        lock.writeLock().lock();
+        try {
+            userIds = users;
+            songIds = songs;
+            idsLoaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getType() != CatalogChangedEvent.Type.SONG) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (event.getAction() == CatalogChangedEvent.Action.DELETED) {
+                songIds.remove(event.getId());
+            } else {
+                songIds.add(event.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Result submit(Integer userId, Integer songId) {
+        if (userId == null || songId == null || !userExists(userId) || !songExists(songId)) {
+            invalid.incrementAndGet();
+            return Result.INVALID;
+        }
+        if (closed) {
+            rejected.incrementAndGet();
+            return Result.BUSY;
+        }
+        try {
+            if (!queue.offer(new PlaysRecordedEvent.Play(userId, songId, LocalDateTime.now()),
+                    offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                rejected.incrementAndGet();
+                return Result.BUSY;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejected.incrementAndGet();
+            return Result.BUSY;
+        }
+        accepted.incrementAndGet();
+        return Result.ACCEPTED;
+    }
+
+    public int queueSize() {
+        return queue.size();
+    }
+
+    public long getAccepted() {
+        return accepted.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public long getInvalid() {
+        return invalid.get();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        closed = true;
+        if (flusher == null) {
+            return;
+        }
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    private boolean userExists(int id) {
+        return exists(id, userIds, () -> userRepository.existsById(id));
+    }
+
+    private boolean songExists(int id) {
+        return exists(id, songIds, () -> songRepository.existsById(id));
+    }
+
+    private boolean exists(int id, IntBitmap cached, BooleanSupplier database) {
+        lock.readLock().lock();
+        try {
+            if (idsLoaded && cached.contains(id)) {
+                return true;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        // New user, or a song created through a path that doesn't publish events
+        if (!database.getAsBoolean()) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            cached.add(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return true;
+    }
+
+    private void runFlusher() {
+        List<PlaysRecordedEvent.Play> batch = new ArrayList<>(batchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                PlaysRecordedEvent.Play first = closed ? queue.poll() : queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize && !closed) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || wait <= 0) {
+                        break;
+                    }
+                    PlaysRecordedEvent.Play next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                queue.drainTo(batch, batchSize - batch.size());
+            } catch (InterruptedException e) {
+                // shutdown: keep draining, the loop ends once the queue is empty
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PlaysRecordedEvent.Play> batch) {
+        List<PlaysRecordedEvent.Play> stored;
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT, batch.stream().map(PlayIngestor::row).toList()));
+            stored = List.copyOf(batch);
+        } catch (DataAccessException e) {
+            // A user or song deleted after validation fails the whole batch; keep the rest
+            stored = new ArrayList<>(batch.size());
+            for (PlaysRecordedEvent.Play play : batch) {
+                try {
+                    jdbcTemplate.update(INSERT, row(play));
+                    stored.add(play);
+                } catch (DataAccessException rowError) {
+                    dropped.incrementAndGet();
+                    forget(play);
+                }
+            }
+            log.warn("Play history batch of {} failed, {} rows written one by one: {}",
+                    batch.size(), stored.size(), e.getMostSpecificCause().getMessage());
+        }
+        batches.incrementAndGet();
+        written.addAndGet(stored.size());
+        if (!stored.isEmpty()) {
+            eventPublisher.publishEvent(new PlaysRecordedEvent(stored));
+        }
+    }
+
+    private void forget(PlaysRecordedEvent.Play play) {
+        lock.writeLock().lock();
+        try {
+            userIds.remove(play.userId());
+            songIds.remove(play.songId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Object[] row(PlaysRecordedEvent.Play play) {
+        return new Object[] { play.userId(), play.songId(), play.playedAt(), PlayHistory.monthOf(play.playedAt()) };
+    }
+}
@@ -0,0 +1,384 @@
+package com.example.music_app_project.service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.music_app_project.dto.RecentPlay;
+import com.example.music_app_project.dto.SongSummary;
+import com.example.music_app_project.repository.ArtistRepository;
+import com.example.music_app_project.repository.GenreRepository;
+import com.example.music_app_project.util.IntBitmap;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+
+// Endless radio stations seeded by a song, an artist or a genre. A station is a
+// small in-memory session: a pool of weighted candidates fed by the similarity
+// neighbors of every song it plays, and a bitmap of everything it has already
+// returned. The listener's recent plays are skipped too. When the neighbors run
+// dry it falls back to songs by adjacent artists, then of adjacent genres (both
+// adjacent through the same neighbor lists), then the all-time chart, and once
+// the whole catalog has been played it starts over. Every source is an
+// in-memory index, so a batch never queries the database for candidates.
+@Component
+public class RadioStations {
+
+    public enum SeedType {
+        SONG, ARTIST, GENRE;
+
+        public static SeedType parse(String value) {
+            try {
+                return valueOf(value.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown radio seed: " + value);
+            }
+        }
+    }
+
+    // Songs of the next batch and the station to continue from
+    public record Batch(String station, List<SongSummary> songs) {
+    }
+
+    private record Candidate(int songId, double weight) {
+    }
+
+    private static final class Station {
+        final int userId;
+        final Random random = new Random();
+        IntBitmap played = new IntBitmap();
+        // Latest songs returned, newest last, so a restart doesn't repeat them straight away
+        final ArrayDeque<Integer> latest = new ArrayDeque<>();
+        // Current weight per candidate; the queue may still hold older, lower
+        // entries for a song, which are skipped when they come up
+        final Map<Integer, Double> candidates = new HashMap<>();
+        final PriorityQueue<Candidate> queue =
+                new PriorityQueue<>(Comparator.comparingDouble(Candidate::weight).reversed());
+        // Artists and genres adjacent to what the station played, by accumulated similarity
+        final Map<Integer, Double> artists = new HashMap<>();
+        final Map<Integer, Double> genres = new HashMap<>();
+        final Set<Integer> drainedArtists = new HashSet<>();
+        final Set<Integer> drainedGenres = new HashSet<>();
+        boolean chartDrained;
+        // Walk over the whole catalog from a random song id, wrapping around once
+        int catalogStart = -1;
+        int catalogCursor;
+        boolean catalogWrapped;
+        boolean catalogDrained;
+
+        Station(int userId) {
+            this.userId = userId;
+        }
+    }
+
+    // Weight lost per hop away from the seed, and the least a played song passes on
+    private static final double DECAY = 0.8;
+    private static final double MIN_WEIGHT = 0.1;
+    // Fallback candidates, below any real neighbor
+    private static final double FALLBACK_WEIGHT = 0.05;
+    private static final int FALLBACK_SONGS = 20;
+    // Recent plays that steer a new station, and how much
+    private static final int HISTORY_SEEDS = 10;
+    private static final double HISTORY_WEIGHT = 0.3;
+    // Songs still skipped after a restart, at most half of what was played
+    private static final int KEEP_AFTER_RESTART = 50;
+
+    @Autowired
+    private SongSimilarity songSimilarity;
+
+    @Autowired
+    private FacetIndex facetIndex;
+
+    @Autowired
+    private PlayCharts playCharts;
+
+    @Autowired
+    private RecentPlays recentPlays;
+
+    @Autowired
+    private SongCache songCache;
+
+    @Autowired
+    private ArtistRepository artistRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Value("${music.radio.session-ttl:30m}")
+    private Duration sessionTtl;
+
+    @Value("${music.radio.max-sessions:10000}")
+    private long maxSessions;
+
+    private Cache<String, Station> stations;
+
+    @PostConstruct
+    void init() {
+        stations = Caffeine.newBuilder()
+                .expireAfterAccess(sessionTtl)
+                .maximumSize(maxSessions)
+                .build();
+    }
+
+    // Starts a station and returns its first batch; empty when the seed does not exist
+    public Optional<Batch> start(SeedType type, int seedId, Integer userId, int limit) {
+        Station station = new Station(userId != null ? userId : 0);
+        switch (type) {
+            case SONG -> {
+                if (songCache.get(seedId).isEmpty()) {
+                    return Optional.empty();
+                }
+                // The seed is what the listener is playing now
+                station.played.add(seedId);
+                feed(station, seedId, 1.0);
+                station.artists.merge(playCharts.artistOf(seedId), 1.0, Double::sum);
+                station.genres.merge(playCharts.genreOf(seedId), 1.0, Double::sum);
+            }
+            case ARTIST -> {
+                if (!artistRepository.existsById(seedId)) {
+                    return Optional.empty();
+                }
+                station.drainedArtists.add(seedId);
+                addSample(station, facetIndex.songsOfArtist(seedId), 1.0);
+            }
+            case GENRE -> {
+                if (!genreRepository.existsById(seedId)) {
+                    return Optional.empty();
+                }
+                station.drainedGenres.add(seedId);
+                addSample(station, facetIndex.songsOfGenre(seedId), 1.0);
+            }
+        }
+        if (userId != null) {
+            List<RecentPlay> recent = recentPlays.recent(userId, HISTORY_SEEDS);
+            for (RecentPlay play : recent) {
+                feed(station, play.getSong().getSongID(), HISTORY_WEIGHT);
+            }
+        }
+        String id = UUID.randomUUID().toString();
+        stations.put(id, station);
+        return Optional.of(new Batch(id, next(station, limit)));
+    }
+
+    // Next batch of a running station; empty when it expired
+    public Optional<Batch> next(String id, int limit) {
+        Station station = stations.getIfPresent(id);
+        if (station == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new Batch(id, next(station, limit)));
+    }
+
+    private List<SongSummary> next(Station station, int limit) {
+        synchronized (station) {
+            IntBitmap recent = new IntBitmap();
+            if (station.userId != 0) {
+                for (RecentPlay play : recentPlays.recent(station.userId, Integer.MAX_VALUE)) {
+                    recent.add(play.getSong().getSongID());
+                }
+            }
+            List<SongSummary> batch = new ArrayList<>(limit);
+            boolean restarted = false;
+            while (batch.size() < limit) {
+                Candidate best = poll(station);
+                if (best == null) {
+                    if (refill(station, recent)) {
+                        continue;
+                    }
+                    if (restarted || station.played.isEmpty()) {
+                        break;
+                    }
+                    // Everything has been played: start over, except the latest songs
+                    int keep = Math.min(KEEP_AFTER_RESTART, station.played.cardinality() / 2);
+                    station.played = new IntBitmap();
+                    Iterator<Integer> latest = station.latest.descendingIterator();
+                    for (int i = 0; i < keep && latest.hasNext(); i++) {
+                        station.played.add(latest.next());
+                    }
+                    station.drainedArtists.clear();
+                    station.drainedGenres.clear();
+                    station.chartDrained = false;
+                    station.catalogStart = -1;
+                    station.catalogWrapped = false;
+                    station.catalogDrained = false;
+                    restarted = true;
+                    continue;
+                }
+                int songId = best.songId();
+                double weight = best.weight();
+                if (station.played.contains(songId) || recent.contains(songId)) {
+                    continue;
+                }
+                station.played.add(songId);
+                Optional<SongSummary> song = songCache.get(songId);
+                if (song.isPresent()) {
+                    batch.add(song.get());
+                    station.latest.addLast(songId);
+                    if (station.latest.size() > KEEP_AFTER_RESTART) {
+                        station.latest.removeFirst();
+                    }
+                    feed(station, songId, weight);
+                }
+            }
+            return batch;
+        }
+    }
+
+    // Adds the song's neighbors as candidates and credits their artists and genres
+    private void feed(Station station, int songId, double weight) {
+        SongSimilarity.Neighbors neighbors = songSimilarity.neighbors(songId);
+        double passed = Math.max(weight, MIN_WEIGHT) * DECAY;
+        for (int i = 0; i < neighbors.size(); i++) {
+            int neighbor = neighbors.songIds()[i];
+            float score = neighbors.scores()[i];
+            if (!station.played.contains(neighbor)) {
+                offer(station, neighbor, jitter(station, passed * score));
+            }
+            station.artists.merge(playCharts.artistOf(neighbor), (double) score, Double::sum);
+            station.genres.merge(playCharts.genreOf(neighbor), (double) score, Double::sum);
+        }
+    }
+
+    // Adds songs from the most adjacent artist or genre not used yet, or from the chart
+    private boolean refill(Station station, IntBitmap recent) {
+        while (true) {
+            int artist = strongest(station.artists, station.drainedArtists);
+            if (artist == 0) {
+                break;
+            }
+            station.drainedArtists.add(artist);
+            if (addSample(station, facetIndex.songsOfArtist(artist), FALLBACK_WEIGHT, recent)) {
+                return true;
+            }
+        }
+        while (true) {
+            int genre = strongest(station.genres, station.drainedGenres);
+            if (genre == 0) {
+                break;
+            }
+            station.drainedGenres.add(genre);
+            if (addSample(station, facetIndex.songsOfGenre(genre), FALLBACK_WEIGHT / 2, recent)) {
+                return true;
+            }
+        }
+        if (!station.chartDrained) {
+            station.chartDrained = true;
+            PlayCharts.Ranking chart = playCharts.top(PlayCharts.Dimension.SONG, PlayCharts.Window.ALL_TIME,
+                    playCharts.getMaxSize());
+            if (addSample(station, chart.ids(), FALLBACK_WEIGHT / 4, recent)) {
+                return true;
+            }
+        }
+        // Last resort, so a station plays the whole catalog before repeating
+        return addFromCatalog(station, FALLBACK_WEIGHT / 8, recent);
+    }
+
+    // Next FALLBACK_SONGS unplayed songs of the catalog walk
+    private boolean addFromCatalog(Station station, double weight, IntBitmap recent) {
+        if (station.catalogStart < 0) {
+            int last = facetIndex.lastSong();
+            if (last < 0) {
+                return false;
+            }
+            station.catalogStart = station.random.nextInt(last + 1);
+            station.catalogCursor = station.catalogStart;
+        }
+        int added = 0;
+        while (added < FALLBACK_SONGS && !station.catalogDrained) {
+            int songId = facetIndex.nextSong(station.catalogCursor);
+            if (songId < 0 && !station.catalogWrapped) {
+                station.catalogWrapped = true;
+                station.catalogCursor = 0;
+                continue;
+            }
+            if (songId < 0 || station.catalogWrapped && songId >= station.catalogStart) {
+                station.catalogDrained = true;
+                break;
+            }
+            station.catalogCursor = songId + 1;
+            if (!station.played.contains(songId) && !recent.contains(songId)
+                    && !station.candidates.containsKey(songId)) {
+                offer(station, songId, jitter(station, weight));
+                added++;
+            }
+        }
+        return added > 0;
+    }
+
+    private boolean addSample(Station station, int[] songIds, double weight) {
+        return addSample(station, songIds, weight, new IntBitmap());
+    }
+
+    // Up to FALLBACK_SONGS unplayed songs, from a random starting point
+    private boolean addSample(Station station, int[] songIds, double weight, IntBitmap recent) {
+        if (songIds.length == 0) {
+            return false;
+        }
+        int start = station.random.nextInt(songIds.length);
+        int added = 0;
+        for (int i = 0; i < songIds.length && added < FALLBACK_SONGS; i++) {
+            int songId = songIds[(start + i) % songIds.length];
+            if (!station.played.contains(songId) && !recent.contains(songId)
+                    && !station.candidates.containsKey(songId)) {
+                offer(station, songId, jitter(station, weight));
+                added++;
+            }
+        }
+        return added > 0;
+    }
+
+    // Adds a candidate, or raises its weight
+    private static void offer(Station station, int songId, double weight) {
+        Double current = station.candidates.get(songId);
+        if (current == null || weight > current) {
+            station.candidates.put(songId, weight);
+            station.queue.add(new Candidate(songId, weight));
+        }
+    }
+
+    // Takes the heaviest candidate off the station, or null when there is none
+    private static Candidate poll(Station station) {
+        Candidate top;
+        while ((top = station.queue.poll()) != null) {
+            Double current = station.candidates.get(top.songId());
+            if (current != null && current == top.weight()) {
+                station.candidates.remove(top.songId());
+                return top;
+            }
+        }
+        return null;
+    }
+
+    private static int strongest(Map<Integer, Double> weights, Set<Integer> drained) {
+        int best = 0;
+        double bestWeight = 0;
+        for (Map.Entry<Integer, Double> entry : weights.entrySet()) {
+            if (entry.getKey() != 0 && !drained.contains(entry.getKey()) && entry.getValue() > bestWeight) {
+                best = entry.getKey();
+                bestWeight = entry.getValue();
+            }
+        }
+        return best;
+    }
+
+    // Up to 15% either way, so two stations from the same seed differ
+    private static double jitter(Station station, double weight) {
+        return weight * (0.85 + 0.3 * station.random.nextDouble());
+    }
+}
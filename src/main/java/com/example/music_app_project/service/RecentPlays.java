@@ -0,0 +1,148 @@
+package com.example.music_app_project.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.music_app_project.dto.RecentPlay;
+import com.example.music_app_project.event.PlaysRecordedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+
+// Each resident user's last N plays in a fixed-size ring. A user's ring is
+// loaded from play_history on first request and then kept current from
+// PlaysRecordedEvent, so reading recent plays never touches the database.
+// Rings of users who stop listening are evicted by size.
+@Component
+public class RecentPlays {
+
+    record Entry(int songId, long playedAtMillis) {
+    }
+
+    // Newest first; the ring overwrites its oldest entry once full
+    static final class Ring {
+        private final int[] songIds;
+        private final long[] playedAt;
+        private int next;
+        private int size;
+
+        Ring(int capacity) {
+            songIds = new int[capacity];
+            playedAt = new long[capacity];
+        }
+
+        synchronized void add(int songId, long time) {
+            // A play committed while the ring was loading may already be in it
+            for (int i = 0, slot = next; i < size; i++) {
+                slot = (slot == 0 ? songIds.length : slot) - 1;
+                if (playedAt[slot] < time) {
+                    break;
+                }
+                if (playedAt[slot] == time && songIds[slot] == songId) {
+                    return;
+                }
+            }
+            songIds[next] = songId;
+            playedAt[next] = time;
+            next = (next + 1) % songIds.length;
+            size = Math.min(size + 1, songIds.length);
+        }
+
+        synchronized List<Entry> newest(int limit) {
+            int n = Math.min(limit, size);
+            List<Entry> out = new ArrayList<>(n);
+            for (int i = 0, slot = next; i < n; i++) {
+                slot = (slot == 0 ? songIds.length : slot) - 1;
+                out.add(new Entry(songIds[slot], playedAt[slot]));
+            }
+            return out;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SongCache songCache;
+
+    @Value("${music.recent-plays.capacity:50}")
+    private int capacity;
+
+    @Value("${music.recent-plays.max-users:10000}")
+    private long maxUsers;
+
+    private Cache<Integer, Ring> rings;
+
+    @PostConstruct
+    void init() {
+        rings = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .build();
+    }
+
+    public List<RecentPlay> recent(int userId, int limit) {
+        return plays(rings.get(userId, this::load), limit);
+    }
+
+    // Only from a ring already in memory, so batch jobs going through every user
+    // neither query per user here nor evict the rings of active listeners
+    public Optional<List<RecentPlay>> recentIfLoaded(int userId, int limit) {
+        Ring ring = rings.getIfPresent(userId);
+        return ring == null ? Optional.empty() : Optional.of(plays(ring, limit));
+    }
+
+    private List<RecentPlay> plays(Ring ring, int limit) {
+        List<RecentPlay> plays = new ArrayList<>();
+        for (Entry entry : ring.newest(Math.max(0, Math.min(limit, capacity)))) {
+            long millis = entry.playedAtMillis();
+            // Songs deleted since they were played are skipped
+            songCache.get(entry.songId()).ifPresent(song ->
+                    plays.add(new RecentPlay(song, LocalDateTime.ofEpochSecond(
+                            Math.floorDiv(millis, 1000), Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC))));
+        }
+        return plays;
+    }
+
+    // Dropped when history rows are deleted; reloaded on the next request
+    public void invalidate(int userId) {
+        rings.invalidate(userId);
+    }
+
+    @EventListener
+    public void onPlaysRecorded(PlaysRecordedEvent event) {
+        for (PlaysRecordedEvent.Play play : event.getPlays()) {
+            // Waits for a ring that is still loading; users without a ring are skipped
+            rings.asMap().computeIfPresent(play.userId(), (userId, ring) -> {
+                ring.add(play.songId(), millis(play.playedAt()));
+                return ring;
+            });
+        }
+    }
+
+    private Ring load(int userId) {
+        Ring ring = new Ring(capacity);
+        List<Entry> rows = jdbcTemplate.query(
+                "SELECT songid, played_at FROM play_history WHERE userid = ? AND played_at IS NOT NULL " +
+                "ORDER BY historyid DESC LIMIT ?",
+                (rs, i) -> new Entry(rs.getInt(1), millis(rs.getObject(2, LocalDateTime.class))),
+                userId, capacity);
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            ring.add(rows.get(i).songId(), rows.get(i).playedAtMillis());
+        }
+        return ring;
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.music_app_project.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.music_app_project.model.Album;
+import com.example.music_app_project.model.Artist;
+import com.example.music_app_project.model.Song;
+import com.example.music_app_project.repository.AlbumRepository;
+import com.example.music_app_project.repository.ArtistRepository;
+import com.example.music_app_project.repository.SongRepository;
+
+// Rows written before the folded key columns existed have them null; fill them
+// once at startup. New writes get their key from the entity lifecycle callbacks.
+@Component
+public class SearchKeyBackfill {
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @Autowired
+    private ArtistRepository artistRepository;
+
+    @Autowired
+    private AlbumRepository albumRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        songRepository.findByTitleKeyIsNull().forEach(Song::updateSearchKey);
+        artistRepository.findByNameKeyIsNull().forEach(Artist::updateSearchKey);
+        albumRepository.findByTitleKeyIsNull().forEach(Album::updateSearchKey);
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.music_app_project.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.music_app_project.event.CatalogChangedEvent;
+import com.example.music_app_project.event.CollectionChangedEvent;
+import com.example.music_app_project.util.IntLongMap;
+import com.example.music_app_project.util.SortedIntSet;
+
+import jakarta.annotation.PostConstruct;
+
+// "Fans also like": artists whose audiences overlap, where an artist's audience
+// is the set of users who favorited and playlists that contain any of their
+// songs. Each audience is reduced to a MinHash signature (the share of equal
+// slots in two signatures estimates their Jaccard similarity) built in one pass
+// over the rows, without holding the sets. Signatures are split into bands and
+// hashed per band, so only artists sharing a band bucket are ever compared.
+// New favorites and playlist songs update signatures as they arrive; removals
+// can't be taken out of a minimum, so the nightly rebuild catches up on those.
+@Component
+public class SimilarArtists {
+
+    // Most similar first, with estimated Jaccard similarity
+    public record Similar(int[] artistIds, float[] similarity) {
+        static final Similar EMPTY = new Similar(new int[0], new float[0]);
+
+        public int size() {
+            return artistIds.length;
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(SimilarArtists.class);
+
+    // Audience members; users and playlists share the id space
+    private static final long USER = 0;
+    private static final long PLAYLIST = 1L << 32;
+
+    // Buckets this big come from one tiny audience shared by many artists (a single
+    // user's favorites); comparing all their pairs would be quadratic, so they are skipped
+    private static final int MAX_BUCKET = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlayCharts playCharts;
+
+    @Value("${music.similar-artists.signature-size:128}")
+    private int signatureSize;
+
+    // Rows per band = signature-size / bands; fewer rows find weaker overlaps
+    @Value("${music.similar-artists.bands:64}")
+    private int bands;
+
+    @Value("${music.similar-artists.neighbors:10}")
+    private int neighborCount;
+
+    @Value("${music.similar-artists.min-similarity:0.05}")
+    private double minSimilarity;
+
+    private Map<Integer, int[]> signatures = new HashMap<>();
+    private volatile Map<Integer, Similar> similar = new HashMap<>();
+    private boolean dirty;
+
+    // Favorites, playlist adds and artist deletes made while a rebuild loads, replayed onto the new signatures
+    private List<Consumer<Map<Integer, int[]>>> pending;
+
+    @PostConstruct
+    void init() {
+        if (signatureSize % bands != 0) {
+            throw new IllegalStateException("music.similar-artists.signature-size must be a multiple of bands");
+        }
+        rebuild();
+    }
+
+    public Similar similar(int artistId) {
+        return similar.getOrDefault(artistId, Similar.EMPTY);
+    }
+
+    @Scheduled(cron = "${music.similar-artists.rebuild-cron:0 50 3 * * *}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            pending = new ArrayList<>();
+        }
+        Map<Integer, int[]> built = new HashMap<>();
+        try {
+            jdbcTemplate.query("SELECT s.artistid, f.userid FROM user_favorites f JOIN songs s ON s.songid = f.songid " +
+                    "WHERE s.artistid IS NOT NULL",
+                    rs -> {
+                        update(built, rs.getInt(1), USER | rs.getInt(2));
+                    });
+            jdbcTemplate.query("SELECT s.artistid, ps.playlistid FROM playlist_songs ps JOIN songs s ON s.songid = ps.songid " +
+                    "WHERE s.artistid IS NOT NULL",
+                    rs -> {
+                        update(built, rs.getInt(1), PLAYLIST | rs.getInt(2));
+                    });
+            synchronized (this) {
+                // Lowering a minimum is idempotent, so replaying a change the queries already saw is harmless
+                for (Consumer<Map<Integer, int[]>> change : pending) {
+                    change.accept(built);
+                }
+                signatures = built;
+                dirty = false;
+                similar = match(built);
+            }
+        } finally {
+            synchronized (this) {
+                pending = null;
+            }
+        }
+        log.info("Built similar artists for {} artists in {} ms", built.size(), System.currentTimeMillis() - start);
+    }
+
+    // Re-buckets from the signatures in memory when favorites or playlists changed
+    @Scheduled(fixedDelayString = "${music.similar-artists.refresh-ms:60000}")
+    public synchronized void refresh() {
+        if (dirty) {
+            dirty = false;
+            similar = match(signatures);
+        }
+    }
+
+    @EventListener
+    public synchronized void onCollectionChanged(CollectionChangedEvent event) {
+        if (event.getAction() != CollectionChangedEvent.Action.ADDED) {
+            return;
+        }
+        int artistId = playCharts.artistOf(event.getSongId());
+        if (artistId != 0) {
+            long member = (event.getType() == CollectionChangedEvent.Type.PLAYLIST ? PLAYLIST : USER) | event.getOwnerId();
+            dirty |= update(signatures, artistId, member);
+            if (pending != null) {
+                pending.add(target -> update(target, artistId, member));
+            }
+        }
+    }
+
+    @EventListener
+    public synchronized void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getType() == CatalogChangedEvent.Type.ARTIST && event.getAction() == CatalogChangedEvent.Action.DELETED) {
+            int artistId = event.getId();
+            dirty |= signatures.remove(artistId) != null;
+            if (pending != null) {
+                pending.add(target -> target.remove(artistId));
+            }
+        }
+    }
+
+    // Lowers the artist's signature with one audience member; false when nothing changed
+    private boolean update(Map<Integer, int[]> target, int artistId, long member) {
+        int[] signature = target.computeIfAbsent(artistId, id -> {
+            int[] empty = new int[signatureSize];
+            Arrays.fill(empty, Integer.MAX_VALUE);
+            return empty;
+        });
+        // Slot i uses hash a + i * b, so one 64-bit hash gives the whole signature
+        long hash = mix(member);
+        int a = (int) hash;
+        int b = (int) (hash >>> 32) | 1;
+        boolean changed = false;
+        for (int i = 0; i < signatureSize; i++) {
+            int h = a + i * b;
+            if (h < signature[i]) {
+                signature[i] = h;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private Map<Integer, Similar> match(Map<Integer, int[]> signatures) {
+        int rows = signatureSize / bands;
+        int[] artistIds = signatures.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        Map<Long, SortedIntSet> buckets = new HashMap<>();
+        long[][] keys = new long[artistIds.length][bands];
+        for (int n = 0; n < artistIds.length; n++) {
+            int[] signature = signatures.get(artistIds[n]);
+            for (int band = 0; band < bands; band++) {
+                long key = band;
+                for (int r = band * rows; r < (band + 1) * rows; r++) {
+                    key = mix(key * 31 + signature[r]);
+                }
+                keys[n][band] = key;
+                // Ids arrive in ascending order, so every add is an append
+                buckets.computeIfAbsent(key, k -> new SortedIntSet()).add(artistIds[n]);
+            }
+        }
+        Map<Integer, Similar> result = new HashMap<>();
+        IntLongMap candidates = new IntLongMap();
+        for (int n = 0; n < artistIds.length; n++) {
+            int artistId = artistIds[n];
+            for (long key : keys[n]) {
+                SortedIntSet bucket = buckets.get(key);
+                if (bucket.size() > MAX_BUCKET) {
+                    continue;
+                }
+                for (int i = 0; i < bucket.size(); i++) {
+                    if (bucket.get(i) != artistId) {
+                        candidates.addTo(bucket.get(i), 1);
+                    }
+                }
+            }
+            if (!candidates.isEmpty()) {
+                Similar row = rank(signatures.get(artistId), candidates, signatures);
+                if (row.size() > 0) {
+                    result.put(artistId, row);
+                }
+                candidates.clear();
+            }
+        }
+        return result;
+    }
+
+    // Scores candidates on the full signatures and keeps the best
+    private Similar rank(int[] signature, IntLongMap candidates, Map<Integer, int[]> signatures) {
+        IntLongMap agreeing = new IntLongMap(candidates.size());
+        candidates.forEach((other, sharedBands) -> {
+            int[] otherSignature = signatures.get(other);
+            int equal = 0;
+            for (int i = 0; i < signatureSize; i++) {
+                if (signature[i] == otherSignature[i]) {
+                    equal++;
+                }
+            }
+            if (equal >= minSimilarity * signatureSize && equal > 0) {
+                agreeing.addTo(other, equal);
+            }
+        });
+        int[] ids = agreeing.top(neighborCount);
+        float[] similarity = new float[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            similarity[i] = (float) agreeing.get(ids[i]) / signatureSize;
+        }
+        return new Similar(ids, similarity);
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
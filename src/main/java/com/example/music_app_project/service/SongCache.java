@@ -0,0 +1,75 @@
+package com.example.music_app_project.service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.music_app_project.dto.SongSummary;
+import com.example.music_app_project.event.CatalogChangedEvent;
+import com.example.music_app_project.repository.SongRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import jakarta.annotation.PostConstruct;
+
+// Read-through cache of song summaries (artist, album and genre resolved).
+// Entries are dropped when the song, or anything it embeds, is written.
+@Component
+public class SongCache {
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @Value("${music.song-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${music.song-cache.ttl:10m}")
+    private Duration ttl;
+
+    private Cache<Integer, SongSummary> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<SongSummary> get(Integer id) {
+        return Optional.ofNullable(cache.get(id, key -> songRepository.findSummaryById(key).orElse(null)));
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        Integer id = event.getId();
+        switch (event.getType()) {
+            case SONG -> cache.invalidate(id);
+            // Albums embed their artist as well
+            case ARTIST -> invalidateIf(song -> (song.getArtist() != null && id.equals(song.getArtist().getArtistID()))
+                    || (song.getAlbum() != null && song.getAlbum().getArtist() != null
+                            && id.equals(song.getAlbum().getArtist().getArtistID())));
+            case ALBUM -> invalidateIf(song -> song.getAlbum() != null && id.equals(song.getAlbum().getAlbumID()));
+            case GENRE -> invalidateIf(song -> song.getGenre() != null && id.equals(song.getGenre().getGenreID()));
+        }
+    }
+
+    private void invalidateIf(Predicate<SongSummary> references) {
+        cache.asMap().values().removeIf(references);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.music_app_project.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.music_app_project.dto.SongSummary;
+import com.example.music_app_project.repository.SongRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Writes the whole catalog as a JSON array while scrolling the result set,
+// so memory per request stays flat no matter how many songs there are.
+@Component
+public class SongCatalogStreamer {
+
+    // Rows written between flushes
+    private static final int CHUNK = 200;
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public void writeAll(OutputStream out) throws IOException {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        try (JsonGenerator json = objectMapper.createGenerator(out)) {
+            json.writeStartArray();
+            tx.executeWithoutResult(status -> {
+                // Summaries are not managed entities, nothing accumulates in the persistence context
+                try (Stream<SongSummary> songs = songRepository.streamAllSummaries()) {
+                    Iterator<SongSummary> it = songs.iterator();
+                    int written = 0;
+                    while (it.hasNext()) {
+                        json.writeObject(it.next());
+                        if (++written % CHUNK == 0) {
+                            json.flush();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            json.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.music_app_project.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import com.example.music_app_project.dto.SongIndexRow;
+import com.example.music_app_project.event.CatalogChangedEvent;
+import com.example.music_app_project.event.CatalogImportedEvent;
+import com.example.music_app_project.model.Song;
+import com.example.music_app_project.repository.SongRepository;
+import com.example.music_app_project.util.SearchKeys;
+import com.example.music_app_project.util.SortedIntSet;
+
+// Trigram inverted index over folded song titles (see SearchKeys). Answers the
+// same question as titleKey LIKE '%term%' without scanning the Songs table: the
+// trigrams of the term select candidate ids, and the stored key confirms the substring.
+@Component
+public class SongSearchIndex {
+
+    private static final int GRAM = 3;
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Grams grams = new Grams();
+    private volatile boolean ready;
+
+    // Song changes made while a rebuild loads, replayed onto the new postings
+    private List<Consumer<Grams>> pending;
+
+    private static final class Grams {
+        final Map<Long, SortedIntSet> postings = new HashMap<>();
+        final Map<Integer, String> titles = new HashMap<>();
+    }
+
+    @Async
+    @EventListener
+    public void onCatalogImported(CatalogImportedEvent event) {
+        rebuild();
+        // Song lists served from the old index meanwhile were tagged with the version
+        // the import bumped; bump again so clients don't keep them on a 304
+        catalogVersions.bump(CatalogVersions.Collection.SONGS);
+    }
+
+    // Loads into new postings without the lock; readers only wait for the swap
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Grams loaded = new Grams();
+        try {
+            for (SongIndexRow row : songRepository.findIndexRows()) {
+                add(loaded, row.getSongID(), row.getTitle());
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            pending = null;
+            lock.writeLock().unlock();
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            // A change is a remove then an add, so replaying one the query already saw is harmless
+            for (Consumer<Grams> change : pending) {
+                change.accept(loaded);
+            }
+            pending = null;
+            grams = loaded;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getType() != CatalogChangedEvent.Type.SONG) {
+            return;
+        }
+        int songId = event.getId();
+        Consumer<Grams> change;
+        if (event.getAction() == CatalogChangedEvent.Action.DELETED) {
+            change = g -> remove(g, songId);
+        } else {
+            String title = ((Song) event.getEntity()).getTitle();
+            change = g -> {
+                remove(g, songId);
+                add(g, songId, title);
+            };
+        }
+        lock.writeLock().lock();
+        try {
+            change.accept(grams);
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // False until the startup build finished; callers fall back to the database
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Sorted ids of songs whose folded title contains the folded term
+    public int[] search(String term) {
+        String needle = SearchKeys.fold(term);
+        lock.readLock().lock();
+        try {
+            Map<Long, SortedIntSet> postings = grams.postings;
+            Map<Integer, String> titles = grams.titles;
+            int[] candidates;
+            if (needle.length() < GRAM) {
+                candidates = titles.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+            } else {
+                List<SortedIntSet> lists = new ArrayList<>();
+                for (int i = 0; i + GRAM <= needle.length(); i++) {
+                    SortedIntSet list = postings.get(gram(needle, i));
+                    if (list == null) {
+                        return new int[0];
+                    }
+                    lists.add(list);
+                }
+                candidates = SortedIntSet.intersect(lists.toArray(new SortedIntSet[0]));
+            }
+
+            int count = 0;
+            for (int id : candidates) {
+                if (titles.get(id).contains(needle)) {
+                    candidates[count++] = id;
+                }
+            }
+            return Arrays.copyOf(candidates, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void add(Grams grams, Integer songId, String title) {
+        String text = SearchKeys.fold(title);
+        grams.titles.put(songId, text);
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.postings.computeIfAbsent(gram(text, i), k -> new SortedIntSet()).add(songId);
+        }
+    }
+
+    private static void remove(Grams grams, Integer songId) {
+        String text = grams.titles.remove(songId);
+        if (text == null) {
+            return;
+        }
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            Long key = gram(text, i);
+            SortedIntSet list = grams.postings.get(key);
+            if (list != null && list.remove(songId) && list.isEmpty()) {
+                grams.postings.remove(key);
+            }
+        }
+    }
+
+    // Packs three UTF-16 chars into one key
+    private static long gram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+}
@@ -0,0 +1,399 @@
+package com.example.music_app_project.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.music_app_project.event.CatalogChangedEvent;
+import com.example.music_app_project.event.CollectionChangedEvent;
+import com.example.music_app_project.event.PlaysRecordedEvent;
+import com.example.music_app_project.util.IntLongMap;
+import com.example.music_app_project.util.SortedIntSet;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Item-to-item similarity from co-occurrence. Every playlist, every user's
+// favorites and every user's listening history is a basket of song ids; two
+// songs are similar when they share baskets, scored by cosine similarity
+// shared / sqrt(baskets(a) * baskets(b)). Only the top neighbors per song are
+// kept, as parallel int/float arrays. A full rebuild runs on a fork-join pool
+// at startup and nightly; in between, new playlist songs, favorites and plays
+// update the baskets and the rows they touch are recomputed every refresh-ms.
+// The startup build reads play_daily, so it waits for ddl-auto to create it.
+@Component
+@DependsOn("entityManagerFactory")
+public class SongSimilarity {
+
+    public record Neighbors(int[] songIds, float[] scores) {
+        static final Neighbors EMPTY = new Neighbors(new int[0], new float[0]);
+
+        public int size() {
+            return songIds.length;
+        }
+    }
+
+    // Baskets and the inverted index from song to basket, replaced as a whole on rebuild
+    private static final class Model {
+        final Map<Long, Integer> basketIndex = new HashMap<>();
+        final List<SortedIntSet> baskets = new ArrayList<>();
+        final Map<Integer, SortedIntSet> postings = new HashMap<>();
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(SongSimilarity.class);
+
+    // Basket kinds; playlists and favorites use the CollectionChangedEvent.Type ordinals
+    private static final int HISTORY = CollectionChangedEvent.Type.values().length;
+
+    // Songs per fork-join leaf
+    private static final int LEAF_SIZE = 256;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${music.similar.neighbors:20}")
+    private int neighborCount;
+
+    // Songs beyond this are left out of a basket; a huge library says little about any pair
+    @Value("${music.similar.max-basket:500}")
+    private int maxBasket;
+
+    // 0 uses one thread per core
+    @Value("${music.similar.parallelism:0}")
+    private int parallelism;
+
+    private ForkJoinPool pool;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Model model = new Model();
+    private volatile Map<Integer, Neighbors> neighbors = new ConcurrentHashMap<>();
+    private final Set<Integer> dirty = ConcurrentHashMap.newKeySet();
+
+    // Changes made while a rebuild runs, replayed onto the new model
+    private List<Consumer<Model>> pending;
+    private Model loading;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threads = new AtomicInteger();
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                p -> {
+                    var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                    thread.setName("song-similarity-" + threads.incrementAndGet());
+                    return thread;
+                }, null, false);
+        rebuild();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // Most similar songs first; empty for songs that share no basket with another
+    public Neighbors neighbors(int songId) {
+        return neighbors.getOrDefault(songId, Neighbors.EMPTY);
+    }
+
+    @Scheduled(cron = "${music.similar.rebuild-cron:0 45 3 * * *}")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Model loaded = new Model();
+        int[] songIds;
+        try {
+            loading = loaded;
+            try {
+                jdbcTemplate.query("SELECT playlistid, songid FROM playlist_songs",
+                        rs -> {
+                            add(loaded, CollectionChangedEvent.Type.PLAYLIST.ordinal(), rs.getInt(1), rs.getInt(2));
+                        });
+                jdbcTemplate.query("SELECT userid, songid FROM user_favorites",
+                        rs -> {
+                            add(loaded, CollectionChangedEvent.Type.FAVORITES.ordinal(), rs.getInt(1), rs.getInt(2));
+                        });
+                // Purged history survives as daily rollups
+                jdbcTemplate.query("SELECT userid, songid FROM play_daily UNION SELECT userid, songid FROM play_history",
+                        rs -> {
+                            add(loaded, HISTORY, rs.getInt(1), rs.getInt(2));
+                        });
+            } finally {
+                loading = null;
+            }
+            songIds = loaded.postings.keySet().stream().mapToInt(Integer::intValue).toArray();
+            Map<Integer, Neighbors> computed = new ConcurrentHashMap<>(songIds.length * 2);
+            pool.invoke(new RowTask(loaded, songIds, 0, songIds.length, computed));
+
+            lock.writeLock().lock();
+            try {
+                // Adds are idempotent and removals apply in order, so replaying is safe
+                // even for changes the queries already saw
+                for (Consumer<Model> change : pending) {
+                    change.accept(loaded);
+                }
+                model = loaded;
+                neighbors = computed;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            // Also when the queries or the row tasks failed, so changes stop queueing
+            lock.writeLock().lock();
+            pending = null;
+            lock.writeLock().unlock();
+        }
+        log.info("Built song similarity for {} songs from {} baskets in {} ms",
+                songIds.length, loaded.baskets.size(), System.currentTimeMillis() - start);
+    }
+
+    // Recomputes the rows of songs whose baskets changed since the last refresh
+    @Scheduled(fixedDelayString = "${music.similar.refresh-ms:30000}")
+    public synchronized void refresh() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Integer> snapshot = new ArrayList<>(dirty);
+        dirty.removeAll(snapshot);
+        int[] songIds = snapshot.stream().mapToInt(Integer::intValue).toArray();
+        Map<Integer, Neighbors> target = neighbors;
+        lock.readLock().lock();
+        try {
+            pool.invoke(new RowTask(model, songIds, 0, songIds.length, target));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onCollectionChanged(CollectionChangedEvent event) {
+        int kind = event.getType().ordinal();
+        if (event.getAction() == CollectionChangedEvent.Action.ADDED) {
+            apply(m -> add(m, kind, event.getOwnerId(), event.getSongId()));
+        } else {
+            apply(m -> remove(m, kind, event.getOwnerId(), event.getSongId()));
+        }
+    }
+
+    @EventListener
+    public void onPlaysRecorded(PlaysRecordedEvent event) {
+        List<PlaysRecordedEvent.Play> plays = event.getPlays();
+        apply(m -> {
+            for (PlaysRecordedEvent.Play play : plays) {
+                add(m, HISTORY, play.userId(), play.songId());
+            }
+        });
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getType() == CatalogChangedEvent.Type.SONG && event.getAction() == CatalogChangedEvent.Action.DELETED) {
+            int songId = event.getId();
+            apply(m -> {
+                SortedIntSet baskets = m.postings.get(songId);
+                if (baskets != null) {
+                    for (int basket : baskets.toArray()) {
+                        removeFromBasket(m, basket, songId);
+                    }
+                }
+            });
+            neighbors.remove(songId);
+        }
+    }
+
+    private void apply(Consumer<Model> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(model);
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(Model m, int kind, int ownerId, int songId) {
+        long key = (long) kind << 32 | (ownerId & 0xFFFFFFFFL);
+        Integer basket = m.basketIndex.get(key);
+        if (basket == null) {
+            basket = m.baskets.size();
+            m.basketIndex.put(key, basket);
+            m.baskets.add(new SortedIntSet());
+        }
+        SortedIntSet songs = m.baskets.get(basket);
+        if (songs.size() >= maxBasket || !songs.add(songId)) {
+            return;
+        }
+        m.postings.computeIfAbsent(songId, id -> new SortedIntSet()).add(basket);
+        markDirty(m, songs);
+    }
+
+    private void remove(Model m, int kind, int ownerId, int songId) {
+        Integer basket = m.basketIndex.get((long) kind << 32 | (ownerId & 0xFFFFFFFFL));
+        if (basket != null) {
+            removeFromBasket(m, basket, songId);
+        }
+    }
+
+    private void removeFromBasket(Model m, int basket, int songId) {
+        SortedIntSet songs = m.baskets.get(basket);
+        if (!songs.remove(songId)) {
+            return;
+        }
+        SortedIntSet baskets = m.postings.get(songId);
+        baskets.remove(basket);
+        if (baskets.isEmpty()) {
+            m.postings.remove(songId);
+        }
+        if (m != loading) {
+            dirty.add(songId);
+        }
+        markDirty(m, songs);
+    }
+
+    // Rows being loaded by a rebuild are all computed anyway
+    private void markDirty(Model m, SortedIntSet songs) {
+        if (m == loading) {
+            return;
+        }
+        for (int i = 0; i < songs.size(); i++) {
+            dirty.add(songs.get(i));
+        }
+    }
+
+    // Splits a range of songs until it is small enough to score on one thread
+    private final class RowTask extends RecursiveAction {
+        private final Model m;
+        private final int[] songIds;
+        private final int from;
+        private final int to;
+        private final Map<Integer, Neighbors> target;
+
+        RowTask(Model m, int[] songIds, int from, int to, Map<Integer, Neighbors> target) {
+            this.m = m;
+            this.songIds = songIds;
+            this.from = from;
+            this.to = to;
+            this.target = target;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_SIZE) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RowTask(m, songIds, from, mid, target), new RowTask(m, songIds, mid, to, target));
+                return;
+            }
+            IntLongMap counts = new IntLongMap(1024);
+            for (int i = from; i < to; i++) {
+                Neighbors row = row(m, songIds[i], counts);
+                if (row.size() > 0) {
+                    target.put(songIds[i], row);
+                } else {
+                    target.remove(songIds[i]);
+                }
+                counts.clear();
+            }
+        }
+    }
+
+    private Neighbors row(Model m, int songId, IntLongMap counts) {
+        SortedIntSet baskets = m.postings.get(songId);
+        if (baskets == null) {
+            return Neighbors.EMPTY;
+        }
+        for (int b = 0; b < baskets.size(); b++) {
+            SortedIntSet songs = m.baskets.get(baskets.get(b));
+            for (int s = 0; s < songs.size(); s++) {
+                if (songs.get(s) != songId) {
+                    counts.addTo(songs.get(s), 1);
+                }
+            }
+        }
+        // Min-heap of the best neighbors so far
+        int k = Math.min(neighborCount, counts.size());
+        int[] ids = new int[k];
+        float[] scores = new float[k];
+        int[] n = new int[1];
+        double norm = baskets.size();
+        counts.forEach((other, shared) -> {
+            float score = (float) (shared / Math.sqrt(norm * m.postings.get(other).size()));
+            if (n[0] < k) {
+                ids[n[0]] = other;
+                scores[n[0]] = score;
+                siftUp(ids, scores, n[0]++);
+            } else if (k > 0 && score > scores[0]) {
+                ids[0] = other;
+                scores[0] = score;
+                siftDown(ids, scores, k);
+            }
+        });
+        for (int end = k - 1; end > 0; end--) {
+            swap(ids, scores, 0, end);
+            siftDown(ids, scores, end);
+        }
+        return new Neighbors(ids, scores);
+    }
+
+    private static void siftUp(int[] ids, float[] scores, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (scores[parent] <= scores[i]) {
+                return;
+            }
+            swap(ids, scores, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] ids, float[] scores, int size) {
+        int i = 0;
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && scores[left] < scores[smallest]) {
+                smallest = left;
+            }
+            if (right < size && scores[right] < scores[smallest]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(ids, scores, i, smallest);
+            i = smallest;
+        }
+    }
+
+    private static void swap(int[] ids, float[] scores, int a, int b) {
+        int id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        float score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
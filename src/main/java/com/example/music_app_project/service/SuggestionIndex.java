@@ -0,0 +1,243 @@
+package com.example.music_app_project.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.music_app_project.dto.NamedRow;
+import com.example.music_app_project.dto.SongIndexRow;
+import com.example.music_app_project.dto.Suggestion;
+import com.example.music_app_project.event.CatalogChangedEvent;
+import com.example.music_app_project.event.CatalogImportedEvent;
+import com.example.music_app_project.model.Album;
+import com.example.music_app_project.model.Artist;
+import com.example.music_app_project.model.Song;
+import com.example.music_app_project.repository.AlbumRepository;
+import com.example.music_app_project.repository.ArtistRepository;
+import com.example.music_app_project.repository.SongRepository;
+import com.example.music_app_project.util.PrefixTrie;
+import com.example.music_app_project.util.SearchKeys;
+
+// Typeahead completions for song titles, artist names and album titles, ranked
+// by all-time play count from PlayCharts. Catalog writes update the trie in place;
+// play counts only move on the periodic rebuild.
+@Component
+public class SuggestionIndex {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    // Longer keys only add trie depth, nobody types that far before picking
+    private static final int MAX_KEY_LENGTH = 48;
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @Autowired
+    private ArtistRepository artistRepository;
+
+    @Autowired
+    private AlbumRepository albumRepository;
+
+    @Autowired
+    private PlayCharts playCharts;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Entries entries = new Entries();
+
+    // Catalog changes made while a rebuild loads, replayed onto the new trie
+    private List<Consumer<Entries>> pending;
+
+    @Async
+    @EventListener
+    public void onCatalogImported(CatalogImportedEvent event) {
+        rebuild();
+    }
+
+    // Loads into a new trie without the lock; readers and catalog writes only wait for the swap
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${music.suggest.refresh-interval-ms:600000}",
+               initialDelayString = "${music.suggest.refresh-interval-ms:600000}")
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Entries fresh = new Entries();
+        try {
+            Map<Integer, Long> artistPlays = new HashMap<>();
+            Map<Integer, Long> albumPlays = new HashMap<>();
+            for (SongIndexRow row : songRepository.findIndexRows()) {
+                long plays = playCharts.allTimePlays(row.getSongID());
+                fresh.put(Suggestion.Type.SONG, row.getSongID(), row.getTitle(), plays);
+                if (row.getArtistID() != null) {
+                    artistPlays.merge(row.getArtistID(), plays, Long::sum);
+                }
+                if (row.getAlbumID() != null) {
+                    albumPlays.merge(row.getAlbumID(), plays, Long::sum);
+                }
+            }
+            for (NamedRow row : artistRepository.findNamedRows()) {
+                fresh.put(Suggestion.Type.ARTIST, row.getId(), row.getName(), artistPlays.getOrDefault(row.getId(), 0L));
+            }
+            for (NamedRow row : albumRepository.findNamedRows()) {
+                fresh.put(Suggestion.Type.ALBUM, row.getId(), row.getName(), albumPlays.getOrDefault(row.getId(), 0L));
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            pending = null;
+            lock.writeLock().unlock();
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            // A change is a remove then a put, so replaying one the queries already saw is harmless
+            for (Consumer<Entries> change : pending) {
+                change.accept(fresh);
+            }
+            pending = null;
+            entries = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        Suggestion.Type type;
+        String text = null;
+        switch (event.getType()) {
+            case SONG -> {
+                type = Suggestion.Type.SONG;
+                if (event.getEntity() instanceof Song song) {
+                    text = song.getTitle();
+                }
+            }
+            case ARTIST -> {
+                type = Suggestion.Type.ARTIST;
+                if (event.getEntity() instanceof Artist artist) {
+                    text = artist.getName();
+                }
+            }
+            case ALBUM -> {
+                type = Suggestion.Type.ALBUM;
+                if (event.getEntity() instanceof Album album) {
+                    text = album.getTitle();
+                }
+            }
+            default -> {
+                return;
+            }
+        }
+
+        Integer id = event.getId();
+        String newText = event.getAction() != CatalogChangedEvent.Action.DELETED ? text : null;
+        Consumer<Entries> change = e -> {
+            Suggestion previous = e.remove(type, id);
+            if (newText != null) {
+                e.put(type, id, newText, previous != null ? previous.getPopularity() : 0L);
+            }
+        };
+        lock.writeLock().lock();
+        try {
+            change.accept(entries);
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Suggestion> suggest(String query, int limit) {
+        String prefix = SearchKeys.fold(query);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        if (prefix.length() > MAX_KEY_LENGTH) {
+            prefix = prefix.substring(0, MAX_KEY_LENGTH);
+        }
+        lock.readLock().lock();
+        try {
+            int[] handles = entries.trie.complete(prefix, Math.min(limit, MAX_SUGGESTIONS));
+            List<Suggestion> result = new ArrayList<>(handles.length);
+            for (int handle : handles) {
+                result.add(entries.byHandle.get(handle));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The folded text plus every suffix starting at a word, so "tung" finds "Sơn Tùng"
+    static Set<String> keysOf(String text) {
+        String folded = SearchKeys.fold(text);
+        Set<String> keys = new LinkedHashSet<>();
+        int start = 0;
+        while (start < folded.length()) {
+            String key = folded.substring(start);
+            keys.add(key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key);
+            int space = folded.indexOf(' ', start);
+            if (space < 0) {
+                break;
+            }
+            start = space + 1;
+        }
+        return keys;
+    }
+
+    // Handle registry plus the trie over it; replaced wholesale on rebuild
+    private static final class Entries {
+        final List<Suggestion> byHandle = new ArrayList<>();
+        final List<Integer> freeHandles = new ArrayList<>();
+        final Map<String, Integer> handles = new HashMap<>();
+        final PrefixTrie trie = new PrefixTrie(MAX_SUGGESTIONS,
+                handle -> byHandle.get(handle).getPopularity());
+
+        void put(Suggestion.Type type, Integer id, String text, long popularity) {
+            if (text == null || text.isBlank()) {
+                return;
+            }
+            Suggestion suggestion = new Suggestion(type, id, text, popularity);
+            int handle;
+            if (freeHandles.isEmpty()) {
+                handle = byHandle.size();
+                byHandle.add(suggestion);
+            } else {
+                handle = freeHandles.remove(freeHandles.size() - 1);
+                byHandle.set(handle, suggestion);
+            }
+            handles.put(type + ":" + id, handle);
+            for (String key : keysOf(text)) {
+                trie.insert(key, handle);
+            }
+        }
+
+        Suggestion remove(Suggestion.Type type, Integer id) {
+            Integer handle = handles.remove(type + ":" + id);
+            if (handle == null) {
+                return null;
+            }
+            Suggestion suggestion = byHandle.get(handle);
+            for (String key : keysOf(suggestion.getText())) {
+                trie.remove(key, handle);
+            }
+            freeHandles.add(handle);
+            return suggestion;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.music_app_project.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.music_app_project.event.PlaysRecordedEvent;
+import com.example.music_app_project.model.PlayHistory;
+import com.example.music_app_project.util.DecayingCountMinSketch;
+
+import jakarta.annotation.PostConstruct;
+
+// Songs whose recent play rate is spiking relative to their own baseline. Two
+// decaying count-min sketches estimate each song's plays with a short and a
+// long half-life; the trend score is the short-term rate over the baseline
+// rate (plus one play per baseline half-life, so new songs need real volume).
+// A bounded min-heap keeps the best-scoring songs seen so far, so memory is
+// fixed whatever the catalog size and no SQL aggregates are ever run. Heap
+// scores are from each song's last play, so they are refreshed periodically.
+@Component
+@DependsOn("playHistoryRetention")
+public class TrendingSongs {
+
+    public record Trend(int songId, double score, double recentPlays) {
+    }
+
+    private static final class Candidate {
+        final int songId;
+        double score;
+
+        Candidate(int songId, double score) {
+            this.songId = songId;
+            this.score = score;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${music.trending.short-half-life:1h}")
+    private Duration shortHalfLife;
+
+    @Value("${music.trending.baseline-half-life:7d}")
+    private Duration baselineHalfLife;
+
+    // Counters per sketch row; estimates overshoot by about total plays / width
+    @Value("${music.trending.sketch-width:2048}")
+    private int width;
+
+    @Value("${music.trending.sketch-depth:4}")
+    private int depth;
+
+    @Value("${music.trending.candidates:100}")
+    private int capacity;
+
+    // Decayed recent plays a song needs before it can trend
+    @Value("${music.trending.min-plays:3}")
+    private double minPlays;
+
+    private DecayingCountMinSketch recent;
+    private DecayingCountMinSketch baseline;
+    private final PriorityQueue<Candidate> heap = new PriorityQueue<>(Comparator.comparingDouble(c -> c.score));
+    private final Map<Integer, Candidate> candidates = new HashMap<>();
+
+    // Seeded before the web server starts from the raw plays the baseline still
+    // remembers, about four half-lives
+    @PostConstruct
+    void init() {
+        long now = now();
+        recent = new DecayingCountMinSketch(depth, width, shortHalfLife.toSeconds(), now);
+        baseline = new DecayingCountMinSketch(depth, width, baselineHalfLife.toSeconds(), now);
+        LocalDateTime since = LocalDateTime.now().minus(baselineHalfLife.multipliedBy(4));
+        Set<Integer> seen = new LinkedHashSet<>();
+        jdbcTemplate.query("SELECT songid, played_at FROM play_history WHERE played_month >= ? AND played_at >= ? " +
+                "ORDER BY played_month, played_at",
+                rs -> {
+                    int songId = rs.getInt(1);
+                    long time = rs.getTimestamp(2).toLocalDateTime().toEpochSecond(ZoneOffset.UTC);
+                    recent.add(songId, time);
+                    baseline.add(songId, time);
+                    seen.add(songId);
+                },
+                PlayHistory.monthOf(since), since);
+        for (int songId : seen) {
+            offer(songId, now);
+        }
+    }
+
+    @EventListener
+    public synchronized void onPlaysRecorded(PlaysRecordedEvent event) {
+        Set<Integer> songs = new LinkedHashSet<>();
+        for (PlaysRecordedEvent.Play play : event.getPlays()) {
+            long time = play.playedAt().toEpochSecond(ZoneOffset.UTC);
+            recent.add(play.songId(), time);
+            baseline.add(play.songId(), time);
+            songs.add(play.songId());
+        }
+        long now = now();
+        for (int songId : songs) {
+            offer(songId, now);
+        }
+    }
+
+    // Candidates re-scored for the current time, best first
+    public synchronized List<Trend> top(int limit) {
+        long now = now();
+        rescore(now);
+        List<Trend> trends = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates.values()) {
+            trends.add(new Trend(candidate.songId, candidate.score, recent.estimate(candidate.songId, now)));
+        }
+        trends.sort(Comparator.comparingDouble(Trend::score).reversed());
+        return trends.size() > limit ? trends.subList(0, limit) : trends;
+    }
+
+    // A song that went quiet keeps the score of its last play and would never be
+    // evicted; also run when nobody asks for the chart
+    @Scheduled(fixedDelayString = "${music.trending.rescore-interval-ms:300000}")
+    public synchronized void rescore() {
+        rescore(now());
+    }
+
+    // Re-scores every candidate, drops those below min-plays and rebuilds the heap
+    private void rescore(long now) {
+        heap.clear();
+        Iterator<Candidate> it = candidates.values().iterator();
+        while (it.hasNext()) {
+            Candidate candidate = it.next();
+            if (recent.estimate(candidate.songId, now) < minPlays) {
+                it.remove();
+            } else {
+                candidate.score = score(candidate.songId, now);
+                heap.add(candidate);
+            }
+        }
+    }
+
+    private void offer(int songId, long now) {
+        Candidate candidate = candidates.get(songId);
+        // Too few recent plays to trend; such songs don't take a slot
+        if (recent.estimate(songId, now) < minPlays) {
+            if (candidate != null) {
+                heap.remove(candidate);
+                candidates.remove(songId);
+            }
+            return;
+        }
+        double score = score(songId, now);
+        if (candidate != null) {
+            heap.remove(candidate);
+            candidate.score = score;
+            heap.add(candidate);
+            return;
+        }
+        if (candidates.size() >= capacity) {
+            // Heap scores are from each song's last play; refresh the weakest before evicting it
+            Candidate weakest = heap.poll();
+            weakest.score = score(weakest.songId, now);
+            if (weakest.score >= score) {
+                heap.add(weakest);
+                return;
+            }
+            candidates.remove(weakest.songId);
+        }
+        candidate = new Candidate(songId, score);
+        candidates.put(songId, candidate);
+        heap.add(candidate);
+    }
+
+    private double score(int songId, long now) {
+        double recentRate = recent.estimate(songId, now) / recent.getHalfLifeSeconds();
+        double baselineRate = (baseline.estimate(songId, now) + 1) / baseline.getHalfLifeSeconds();
+        return recentRate / baselineRate;
+    }
+
+    private static long now() {
+        return LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+    }
+}
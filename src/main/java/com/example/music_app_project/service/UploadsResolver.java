@@ -0,0 +1,63 @@
+package com.example.music_app_project.service;
+
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+// Maps stored file references (Song.audioFile, Album.coverImage) onto files under
+// the uploads directory. Values are the paths the static resource handler serves
+// ("/a.mp3" or "uploads/a.mp3"); anything that escapes the directory is refused.
+@Component
+public class UploadsResolver {
+
+    @Value("${music.uploads.dir:uploads}")
+    private String uploadsDir;
+
+    private Path root;
+
+    @PostConstruct
+    void init() {
+        root = Paths.get(uploadsDir).toAbsolutePath().normalize();
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    public static boolean isRemote(String reference) {
+        return reference != null && (reference.startsWith("http://") || reference.startsWith("https://"));
+    }
+
+    // Local file behind a stored reference, or null when there is none
+    public Path resolve(String reference) {
+        Path file = locate(reference);
+        return file != null && Files.isRegularFile(file) ? file : null;
+    }
+
+    // Where a stored reference points under the directory, without checking that the file exists
+    public Path locate(String reference) {
+        if (reference == null || reference.isBlank() || isRemote(reference)) {
+            return null;
+        }
+        String relative = reference.trim().replace('\\', '/');
+        while (relative.startsWith("/")) {
+            relative = relative.substring(1);
+        }
+        if (relative.startsWith("uploads/")) {
+            relative = relative.substring("uploads/".length());
+        }
+        Path file;
+        try {
+            file = root.resolve(relative).normalize();
+        } catch (InvalidPathException e) {
+            return null;
+        }
+        return file.startsWith(root) ? file : null;
+    }
+}
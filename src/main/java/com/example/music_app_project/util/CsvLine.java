@@ -0,0 +1,53 @@
+package com.example.music_app_project.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// RFC 4180 field splitting for a single CSV record: quoted fields may contain
+// commas and doubled quotes, but not line breaks.
+public final class CsvLine {
+
+    private CsvLine() {
+    }
+
+    public static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // Quotes the field only if it contains a delimiter, quote or line break
+    public static String quote(String field) {
+        boolean plain = true;
+        for (int i = 0; i < field.length() && plain; i++) {
+            char c = field.charAt(i);
+            plain = c != ',' && c != '"' && c != '\n' && c != '\r';
+        }
+        return plain ? field : '"' + field.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.music_app_project.util;
+
+// Count-min sketch of exponentially decayed counts in fixed memory (depth x width
+// doubles). Decay is applied forward: an event at time t is added with weight
+// 2^((t - landmark) / halfLife) and estimates are divided by the same factor for
+// "now", so no counter is ever touched to age it. When weights grow large all
+// counters are rescaled once and the landmark moves up. Updates are conservative
+// (only the minimal counters grow), which keeps overestimates small. Times are in
+// seconds. Not thread-safe.
+public class DecayingCountMinSketch {
+
+    // Rescale before weights lose precision relative to old counts
+    private static final double MAX_EXPONENT = 40;
+
+    private final int width;
+    private final double[][] counters;
+    private final int[] seeds;
+    private final double halfLifeSeconds;
+    private long landmark;
+
+    public DecayingCountMinSketch(int depth, int width, double halfLifeSeconds, long nowSeconds) {
+        this.width = width;
+        this.counters = new double[depth][width];
+        this.seeds = new int[depth];
+        for (int i = 0; i < depth; i++) {
+            seeds[i] = 0x9E3779B9 * (i + 1);
+        }
+        this.halfLifeSeconds = halfLifeSeconds;
+        this.landmark = nowSeconds;
+    }
+
+    public void add(int key, long timeSeconds) {
+        double exponent = (timeSeconds - landmark) / halfLifeSeconds;
+        if (exponent > MAX_EXPONENT) {
+            rescale(timeSeconds);
+            exponent = 0;
+        }
+        double weight = Math.pow(2, exponent);
+        int[] slots = new int[counters.length];
+        double min = Double.MAX_VALUE;
+        for (int i = 0; i < counters.length; i++) {
+            slots[i] = slot(key, i);
+            min = Math.min(min, counters[i][slots[i]]);
+        }
+        double target = min + weight;
+        for (int i = 0; i < counters.length; i++) {
+            if (counters[i][slots[i]] < target) {
+                counters[i][slots[i]] = target;
+            }
+        }
+    }
+
+    // Decayed count at the given time: plays one half-life ago count for 0.5
+    public double estimate(int key, long nowSeconds) {
+        double min = Double.MAX_VALUE;
+        for (int i = 0; i < counters.length; i++) {
+            min = Math.min(min, counters[i][slot(key, i)]);
+        }
+        return min / Math.pow(2, (nowSeconds - landmark) / halfLifeSeconds);
+    }
+
+    public double getHalfLifeSeconds() {
+        return halfLifeSeconds;
+    }
+
+    private void rescale(long nowSeconds) {
+        double factor = Math.pow(2, -(nowSeconds - landmark) / halfLifeSeconds);
+        for (double[] row : counters) {
+            for (int j = 0; j < row.length; j++) {
+                row[j] *= factor;
+            }
+        }
+        landmark = nowSeconds;
+    }
+
+    private int slot(int key, int row) {
+        int h = (key ^ seeds[row]) * 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return Math.floorMod(h, width);
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.music_app_project.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Cardinality sketch with 2^12 registers (standard error 1.04 / sqrt(4096), about
+// 1.6%). Starts sparse, as a sorted list of the non-zero registers, and turns
+// dense once that list would outgrow the 4 KB register array, so the many small
+// per-day sketches stay small. Adding the same value twice never changes it, and
+// merging takes the register-wise maximum. Not thread-safe.
+public class HyperLogLog {
+
+    public static final int P = 12;
+    public static final int M = 1 << P;
+    public static final double STANDARD_ERROR = 1.04 / Math.sqrt(M);
+
+    private static final int SPARSE_MAX = M / 8;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / M);
+    private static final byte SPARSE = 0;
+    private static final byte DENSE = 1;
+
+    // Sparse entries are (register << 8 | rank), sorted by register
+    private int[] sparse = new int[4];
+    private int sparseSize;
+    private byte[] dense;
+
+    public void add(long value) {
+        long hash = mix(value);
+        int register = (int) (hash >>> (64 - P));
+        int rank = Long.numberOfLeadingZeros((hash << P) | (1L << (P - 1))) + 1;
+        set(register, rank);
+    }
+
+    public void merge(HyperLogLog other) {
+        if (other.dense != null) {
+            for (int register = 0; register < M; register++) {
+                if (other.dense[register] != 0) {
+                    set(register, other.dense[register]);
+                }
+            }
+        } else {
+            for (int i = 0; i < other.sparseSize; i++) {
+                set(other.sparse[i] >>> 8, other.sparse[i] & 0xFF);
+            }
+        }
+    }
+
+    public long estimate() {
+        if (dense == null) {
+            // Every other register is zero, so linear counting is exact enough
+            return Math.round(M * Math.log((double) M / (M - sparseSize)));
+        }
+        double sum = 0;
+        int zeros = 0;
+        for (byte rank : dense) {
+            sum += 1.0 / (1L << rank);
+            if (rank == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * M * M / sum;
+        if (estimate <= 2.5 * M && zeros > 0) {
+            estimate = M * Math.log((double) M / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public boolean isEmpty() {
+        return dense == null && sparseSize == 0;
+    }
+
+    public byte[] toBytes() {
+        if (dense != null) {
+            ByteBuffer buffer = ByteBuffer.allocate(2 + M);
+            return buffer.put(DENSE).put((byte) P).put(dense).array();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(2 + 4 * sparseSize);
+        buffer.put(SPARSE).put((byte) P);
+        for (int i = 0; i < sparseSize; i++) {
+            buffer.putInt(sparse[i]);
+        }
+        return buffer.array();
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte format = buffer.get();
+        if (buffer.get() != P) {
+            throw new IllegalArgumentException("Unsupported HyperLogLog precision");
+        }
+        HyperLogLog sketch = new HyperLogLog();
+        if (format == DENSE) {
+            sketch.dense = new byte[M];
+            buffer.get(sketch.dense);
+        } else {
+            sketch.sparseSize = buffer.remaining() / 4;
+            sketch.sparse = new int[Math.max(4, sketch.sparseSize)];
+            for (int i = 0; i < sketch.sparseSize; i++) {
+                sketch.sparse[i] = buffer.getInt();
+            }
+        }
+        return sketch;
+    }
+
+    private void set(int register, int rank) {
+        if (dense != null) {
+            if (dense[register] < rank) {
+                dense[register] = (byte) rank;
+            }
+            return;
+        }
+        int pos = Arrays.binarySearch(sparse, 0, sparseSize, register << 8);
+        if (pos < 0) {
+            pos = -pos - 1;
+        }
+        if (pos < sparseSize && sparse[pos] >>> 8 == register) {
+            if ((sparse[pos] & 0xFF) < rank) {
+                sparse[pos] = register << 8 | rank;
+            }
+            return;
+        }
+        if (sparseSize == SPARSE_MAX) {
+            toDense();
+            dense[register] = (byte) rank;
+            return;
+        }
+        if (sparseSize == sparse.length) {
+            sparse = Arrays.copyOf(sparse, sparse.length * 2);
+        }
+        System.arraycopy(sparse, pos, sparse, pos + 1, sparseSize - pos);
+        sparse[pos] = register << 8 | rank;
+        sparseSize++;
+    }
+
+    private void toDense() {
+        dense = new byte[M];
+        for (int i = 0; i < sparseSize; i++) {
+            dense[sparse[i] >>> 8] = (byte) (sparse[i] & 0xFF);
+        }
+        sparse = null;
+        sparseSize = 0;
+    }
+
+    // SplitMix64 finalizer: user ids are small and sequential, registers need uniform bits
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,383 @@
+package com.example.music_app_project.util;
+
+import java.util.Arrays;
+
+// Compressed bitmap of non-negative ints, split into 65536-wide chunks like
+// Roaring: a chunk stores a sorted char array while sparse and switches to a
+// plain 1024-word bitset once it holds more than 4096 values. Not thread-safe.
+public class IntBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1024;
+
+    private char[] keys = new char[0];
+    private Chunk[] chunks = new Chunk[0];
+    private int size;
+
+    public static IntBitmap of(int[] sortedValues) {
+        IntBitmap bitmap = new IntBitmap();
+        for (int value : sortedValues) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+
+    public void add(int value) {
+        char key = (char) (value >>> 16);
+        int pos = Arrays.binarySearch(keys, 0, size, key);
+        if (pos < 0) {
+            pos = -pos - 1;
+            insertChunk(pos, key, new ArrayChunk());
+        }
+        chunks[pos] = chunks[pos].add((char) value);
+    }
+
+    public void remove(int value) {
+        int pos = Arrays.binarySearch(keys, 0, size, (char) (value >>> 16));
+        if (pos < 0) {
+            return;
+        }
+        chunks[pos] = chunks[pos].remove((char) value);
+        if (chunks[pos].cardinality() == 0) {
+            System.arraycopy(keys, pos + 1, keys, pos, size - pos - 1);
+            System.arraycopy(chunks, pos + 1, chunks, pos, size - pos - 1);
+            size--;
+            chunks[size] = null;
+        }
+    }
+
+    public boolean contains(int value) {
+        int pos = Arrays.binarySearch(keys, 0, size, (char) (value >>> 16));
+        return pos >= 0 && chunks[pos].contains((char) value);
+    }
+
+    public int cardinality() {
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            total += chunks[i].cardinality();
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // |this ∩ other| without materializing the intersection
+    public int andCardinality(IntBitmap other) {
+        int total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                total += chunks[i].andCardinality(other.chunks[j]);
+                i++;
+                j++;
+            }
+        }
+        return total;
+    }
+
+    public IntBitmap and(IntBitmap other) {
+        IntBitmap result = new IntBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.appendFiltered(keys[i], chunks[i], other.chunks[j], true);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    // this \ other
+    public IntBitmap andNot(IntBitmap other) {
+        IntBitmap result = new IntBitmap();
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j < other.size && other.keys[j] == keys[i]) {
+                result.appendFiltered(keys[i], chunks[i], other.chunks[j], false);
+            } else {
+                result.appendFiltered(keys[i], chunks[i], null, false);
+            }
+        }
+        return result;
+    }
+
+    public IntBitmap copy() {
+        IntBitmap copy = new IntBitmap();
+        for (int i = 0; i < size; i++) {
+            copy.appendFiltered(keys[i], chunks[i], null, false);
+        }
+        return copy;
+    }
+
+    // Smallest value >= from, or -1
+    public int next(int from) {
+        int pos = Arrays.binarySearch(keys, 0, size, (char) (Math.max(from, 0) >>> 16));
+        if (pos >= 0) {
+            int low = chunks[pos].next(Math.max(from, 0) & 0xFFFF);
+            if (low >= 0) {
+                return keys[pos] << 16 | low;
+            }
+            pos++;
+        } else {
+            pos = -pos - 1;
+        }
+        return pos < size ? keys[pos] << 16 | chunks[pos].next(0) : -1;
+    }
+
+    // Largest value, or -1 when empty
+    public int last() {
+        return size == 0 ? -1 : keys[size - 1] << 16 | chunks[size - 1].last();
+    }
+
+    // Values in ascending order
+    public int[] toArray() {
+        int[] out = new int[cardinality()];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            int high = keys[i] << 16;
+            Chunk chunk = chunks[i];
+            for (int low = chunk.next(0); low >= 0; low = chunk.next(low + 1)) {
+                out[n++] = high | low;
+            }
+        }
+        return out;
+    }
+
+    // Appends the values of chunk kept (keep=true) or dropped (keep=false) by filter
+    private void appendFiltered(char key, Chunk chunk, Chunk filter, boolean keep) {
+        Chunk out = new ArrayChunk();
+        for (int low = chunk.next(0); low >= 0; low = chunk.next(low + 1)) {
+            boolean inFilter = filter != null && filter.contains((char) low);
+            if (inFilter == keep) {
+                out = out.add((char) low);
+            }
+        }
+        if (out.cardinality() > 0) {
+            insertChunk(size, key, out);
+        }
+    }
+
+    private void insertChunk(int pos, char key, Chunk chunk) {
+        if (size == keys.length) {
+            int capacity = Math.max(4, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            chunks = Arrays.copyOf(chunks, capacity);
+        }
+        System.arraycopy(keys, pos, keys, pos + 1, size - pos);
+        System.arraycopy(chunks, pos, chunks, pos + 1, size - pos);
+        keys[pos] = key;
+        chunks[pos] = chunk;
+        size++;
+    }
+
+    private abstract static class Chunk {
+        // add/remove return the chunk to keep, which may have changed representation
+        abstract Chunk add(char value);
+
+        abstract Chunk remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        // Smallest value >= from, or -1
+        abstract int next(int from);
+
+        abstract int last();
+
+        abstract int andCardinality(Chunk other);
+    }
+
+    private static final class ArrayChunk extends Chunk {
+        char[] values = new char[4];
+        int cardinality;
+
+        @Override
+        Chunk add(char value) {
+            int pos = Arrays.binarySearch(values, 0, cardinality, value);
+            if (pos >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX) {
+                return toBitmap().add(value);
+            }
+            pos = -pos - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, cardinality * 2));
+            }
+            System.arraycopy(values, pos, values, pos + 1, cardinality - pos);
+            values[pos] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Chunk remove(char value) {
+            int pos = Arrays.binarySearch(values, 0, cardinality, value);
+            if (pos >= 0) {
+                System.arraycopy(values, pos + 1, values, pos, cardinality - pos - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        int next(int from) {
+            if (from > Character.MAX_VALUE) {
+                return -1;
+            }
+            int pos = Arrays.binarySearch(values, 0, cardinality, (char) from);
+            if (pos < 0) {
+                pos = -pos - 1;
+            }
+            return pos < cardinality ? values[pos] : -1;
+        }
+
+        @Override
+        int last() {
+            return values[cardinality - 1];
+        }
+
+        @Override
+        int andCardinality(Chunk other) {
+            int total = 0;
+            if (other instanceof ArrayChunk array) {
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] < array.values[j]) {
+                        i++;
+                    } else if (values[i] > array.values[j]) {
+                        j++;
+                    } else {
+                        total++;
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        total++;
+                    }
+                }
+            }
+            return total;
+        }
+
+        private BitmapChunk toBitmap() {
+            BitmapChunk bitmap = new BitmapChunk();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapChunk extends Chunk {
+        final long[] words = new long[WORDS];
+        int cardinality;
+
+        @Override
+        Chunk add(char value) {
+            long mask = 1L << value;
+            if ((words[value >>> 6] & mask) == 0) {
+                words[value >>> 6] |= mask;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Chunk remove(char value) {
+            long mask = 1L << value;
+            if ((words[value >>> 6] & mask) != 0) {
+                words[value >>> 6] &= ~mask;
+                cardinality--;
+            }
+            if (cardinality <= ARRAY_MAX / 2) {
+                ArrayChunk array = new ArrayChunk();
+                for (int low = next(0); low >= 0; low = next(low + 1)) {
+                    array.add((char) low);
+                }
+                return array;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        int next(int from) {
+            int word = from >>> 6;
+            if (word >= WORDS) {
+                return -1;
+            }
+            long bits = words[word] & (-1L << from);
+            while (true) {
+                if (bits != 0) {
+                    return word * 64 + Long.numberOfTrailingZeros(bits);
+                }
+                if (++word == WORDS) {
+                    return -1;
+                }
+                bits = words[word];
+            }
+        }
+
+        @Override
+        int last() {
+            for (int word = WORDS - 1; ; word--) {
+                if (words[word] != 0) {
+                    return word * 64 + 63 - Long.numberOfLeadingZeros(words[word]);
+                }
+            }
+        }
+
+        @Override
+        int andCardinality(Chunk other) {
+            if (other instanceof BitmapChunk bitmap) {
+                int total = 0;
+                for (int i = 0; i < WORDS; i++) {
+                    total += Long.bitCount(words[i] & bitmap.words[i]);
+                }
+                return total;
+            }
+            return other.andCardinality(this);
+        }
+    }
+}
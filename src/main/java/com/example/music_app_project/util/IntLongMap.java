@@ -0,0 +1,218 @@
+package com.example.music_app_project.util;
+
+import java.util.Arrays;
+
+// Open-addressing map from positive int keys to long counters, without boxing.
+// Linear probing with backward-shift deletion; an entry whose counter drops to
+// zero is removed so expiring counts don't leave tombstones behind. Not thread-safe.
+public class IntLongMap {
+
+    public interface Visitor {
+        void accept(int key, long value);
+    }
+
+    private static final int FREE = 0;
+
+    private int[] keys;
+    private long[] values;
+    private int size;
+    private int mask;
+
+    public IntLongMap() {
+        this(16);
+    }
+
+    public IntLongMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+        keys = new int[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long get(int key) {
+        int slot = find(key);
+        return slot < 0 ? 0 : values[slot];
+    }
+
+    // Adds delta to the key's counter and returns the new value
+    public long addTo(int key, long delta) {
+        int slot = mix(key) & mask;
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                long value = values[slot] + delta;
+                if (value == 0) {
+                    removeSlot(slot);
+                } else {
+                    values[slot] = value;
+                }
+                return value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (delta == 0) {
+            return 0;
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        if (++size * 4 > keys.length * 3) {
+            grow();
+        }
+        return delta;
+    }
+
+    public void remove(int key) {
+        int slot = find(key);
+        if (slot >= 0) {
+            removeSlot(slot);
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        Arrays.fill(values, 0);
+        size = 0;
+    }
+
+    public void forEach(Visitor visitor) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != FREE) {
+                visitor.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    // Keys of the largest counters, largest first; ties go to the smaller key
+    public int[] top(int limit) {
+        int k = Math.min(limit, size);
+        int[] heapKeys = new int[k];
+        long[] heapValues = new long[k];
+        int n = 0;
+        for (int slot = 0; slot < keys.length && k > 0; slot++) {
+            int key = keys[slot];
+            if (key == FREE) {
+                continue;
+            }
+            long value = values[slot];
+            if (n < k) {
+                heapKeys[n] = key;
+                heapValues[n] = value;
+                siftUp(heapKeys, heapValues, n++);
+            } else if (before(key, value, heapKeys[0], heapValues[0])) {
+                heapKeys[0] = key;
+                heapValues[0] = value;
+                siftDown(heapKeys, heapValues, n);
+            }
+        }
+        // Pop the min-heap from the back to get descending order
+        for (int end = n - 1; end > 0; end--) {
+            swap(heapKeys, heapValues, 0, end);
+            siftDown(heapKeys, heapValues, end);
+        }
+        return heapKeys;
+    }
+
+    private int find(int key) {
+        int slot = mix(key) & mask;
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void removeSlot(int slot) {
+        size--;
+        // Shift later entries of the probe run back so lookups never hit a gap
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != FREE) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = FREE;
+        values[gap] = 0;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new long[oldKeys.length * 2];
+        mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (keys[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // True if (key, value) ranks ahead of (otherKey, otherValue)
+    private static boolean before(int key, long value, int otherKey, long otherValue) {
+        return value > otherValue || (value == otherValue && key < otherKey);
+    }
+
+    private static void siftUp(int[] heapKeys, long[] heapValues, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(heapKeys[parent], heapValues[parent], heapKeys[i], heapValues[i])) {
+                break;
+            }
+            swap(heapKeys, heapValues, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] heapKeys, long[] heapValues, int n) {
+        int i = 0;
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < n && before(heapKeys[smallest], heapValues[smallest], heapKeys[left], heapValues[left])) {
+                smallest = left;
+            }
+            if (right < n && before(heapKeys[smallest], heapValues[smallest], heapKeys[right], heapValues[right])) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(heapKeys, heapValues, i, smallest);
+            i = smallest;
+        }
+    }
+
+    private static void swap(int[] heapKeys, long[] heapValues, int i, int j) {
+        int key = heapKeys[i];
+        heapKeys[i] = heapKeys[j];
+        heapKeys[j] = key;
+        long value = heapValues[i];
+        heapValues[i] = heapValues[j];
+        heapValues[j] = value;
+    }
+}
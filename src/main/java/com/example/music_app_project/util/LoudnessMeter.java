@@ -0,0 +1,125 @@
+package com.example.music_app_project.util;
+
+import java.util.Arrays;
+
+// Integrated loudness per ITU-R BS.1770-4 / EBU R128: K-weighting (high shelf +
+// high pass), mean square over 400 ms blocks with 75% overlap, then an absolute
+// gate at -70 LUFS and a relative gate 10 LU below the ungated mean. Samples are
+// fed interleaved and normalized to [-1, 1]; front channels weigh 1.0, which is
+// all mono and stereo files need.
+public class LoudnessMeter {
+
+    private static final double ABSOLUTE_GATE = -70.0;
+    private static final double RELATIVE_GATE = -10.0;
+
+    private final int channels;
+    private final int segmentFrames; // 100 ms, a quarter of a gating block
+
+    // Biquad coefficients, shared by all channels
+    private final double[] shelf;
+    private final double[] highPass;
+    // Per-channel filter state: x1, x2, y1, y2 of each stage
+    private final double[][] state;
+
+    private double segmentSum;
+    private int segmentFill;
+    private double[] segments = new double[256];
+    private int segmentCount;
+
+    public LoudnessMeter(int sampleRate, int channels) {
+        this.channels = channels;
+        this.segmentFrames = Math.max(1, sampleRate / 10);
+        this.shelf = highShelf(sampleRate);
+        this.highPass = highPass(sampleRate);
+        this.state = new double[channels][8];
+    }
+
+    // frames * channels interleaved samples starting at offset
+    public void add(float[] samples, int offset, int frames) {
+        int i = offset;
+        for (int f = 0; f < frames; f++) {
+            for (int c = 0; c < channels; c++) {
+                double y = filter(state[c], 0, shelf, samples[i++]);
+                y = filter(state[c], 4, highPass, y);
+                segmentSum += y * y;
+            }
+            if (++segmentFill == segmentFrames) {
+                if (segmentCount == segments.length) {
+                    segments = Arrays.copyOf(segments, segments.length * 2);
+                }
+                segments[segmentCount++] = segmentSum / segmentFrames;
+                segmentSum = 0;
+                segmentFill = 0;
+            }
+        }
+    }
+
+    // LUFS, or NaN when the input is shorter than one block or entirely below the absolute gate
+    public double integrated() {
+        int blocks = segmentCount - 3;
+        if (blocks <= 0) {
+            return Double.NaN;
+        }
+        double[] power = new double[blocks];
+        for (int b = 0; b < blocks; b++) {
+            power[b] = (segments[b] + segments[b + 1] + segments[b + 2] + segments[b + 3]) / 4;
+        }
+        double absoluteMean = gatedMean(power, ABSOLUTE_GATE);
+        if (Double.isNaN(absoluteMean)) {
+            return Double.NaN;
+        }
+        double relativeMean = gatedMean(power, lufs(absoluteMean) + RELATIVE_GATE);
+        return Double.isNaN(relativeMean) ? Double.NaN : lufs(relativeMean);
+    }
+
+    private static double gatedMean(double[] power, double gate) {
+        double sum = 0;
+        int n = 0;
+        for (double p : power) {
+            if (p > 0 && lufs(p) > gate) {
+                sum += p;
+                n++;
+            }
+        }
+        return n == 0 ? Double.NaN : sum / n;
+    }
+
+    private static double lufs(double meanSquare) {
+        return -0.691 + 10 * Math.log10(meanSquare);
+    }
+
+    private static double filter(double[] s, int at, double[] k, double x) {
+        double y = k[0] * x + k[1] * s[at] + k[2] * s[at + 1] - k[3] * s[at + 2] - k[4] * s[at + 3];
+        s[at + 1] = s[at];
+        s[at] = x;
+        s[at + 3] = s[at + 2];
+        s[at + 2] = y;
+        return y;
+    }
+
+    // Stage 1 of the K-weighting, derived for any rate (libebur128 parameters): b0, b1, b2, a1, a2
+    private static double[] highShelf(int rate) {
+        double f0 = 1681.974450955533;
+        double gain = 3.999843853973347;
+        double q = 0.7071752369554196;
+        double k = Math.tan(Math.PI * f0 / rate);
+        double vh = Math.pow(10, gain / 20);
+        double vb = Math.pow(vh, 0.4996667741545416);
+        double a0 = 1 + k / q + k * k;
+        return new double[] {
+                (vh + vb * k / q + k * k) / a0,
+                2 * (k * k - vh) / a0,
+                (vh - vb * k / q + k * k) / a0,
+                2 * (k * k - 1) / a0,
+                (1 - k / q + k * k) / a0 };
+    }
+
+    // Stage 2, the RLB high pass
+    private static double[] highPass(int rate) {
+        double f0 = 38.13547087602444;
+        double q = 0.5003270373238773;
+        double k = Math.tan(Math.PI * f0 / rate);
+        double a0 = 1 + k / q + k * k;
+        return new double[] { 1, -2, 1, 2 * (k * k - 1) / a0, (1 - k / q + k * k) / a0 };
+    }
+}
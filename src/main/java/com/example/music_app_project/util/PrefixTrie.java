@@ -0,0 +1,183 @@
+package com.example.music_app_project.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntToLongFunction;
+
+// Prefix trie over int handles where every node caches the top-K handles of its
+// subtree, so a completion lookup is one walk down the prefix and no subtree scan.
+// Children are kept in sorted char/node arrays instead of maps to stay compact.
+// Not thread-safe; the owner guards access.
+public class PrefixTrie {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final int topK;
+    private final IntToLongFunction score;
+    private final Node root = new Node();
+
+    // score: higher values rank first, ties broken by the lower handle
+    public PrefixTrie(int topK, IntToLongFunction score) {
+        this.topK = topK;
+        this.score = score;
+    }
+
+    public void insert(String key, int handle) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i));
+            offer(node, handle);
+        }
+        node.terminals = append(node.terminals, handle);
+    }
+
+    public void remove(String key, int handle) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].child(key.charAt(i));
+            if (path[i + 1] == null) {
+                return;
+            }
+        }
+        Node last = path[key.length()];
+        int at = indexOf(last.terminals, last.terminals.length, handle);
+        if (at < 0) {
+            return;
+        }
+        last.terminals = removeAt(last.terminals, at);
+
+        // Bottom-up: refill caches that held the handle and prune empty nodes
+        for (int depth = key.length(); depth > 0; depth--) {
+            Node node = path[depth];
+            if (node.terminals.length == 0 && node.childCount == 0) {
+                path[depth - 1].removeChild(key.charAt(depth - 1));
+            } else if (indexOf(node.top, node.topSize, handle) >= 0) {
+                recompute(node);
+            }
+        }
+    }
+
+    // Best handles for keys starting with the prefix, at most min(limit, topK)
+    public int[] complete(String prefix, int limit) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        if (node == null || node == root) {
+            return EMPTY;
+        }
+        return Arrays.copyOf(node.top, Math.min(limit, node.topSize));
+    }
+
+    private void offer(Node node, int handle) {
+        if (indexOf(node.top, node.topSize, handle) >= 0) {
+            return;
+        }
+        if (node.topSize == topK && !ranksBefore(handle, node.top[topK - 1])) {
+            return;
+        }
+        if (node.topSize == node.top.length) {
+            node.top = Arrays.copyOf(node.top, Math.min(topK, Math.max(2, node.top.length * 2)));
+        }
+        int pos = Math.min(node.topSize, topK - 1);
+        while (pos > 0 && ranksBefore(handle, node.top[pos - 1])) {
+            node.top[pos] = node.top[pos - 1];
+            pos--;
+        }
+        node.top[pos] = handle;
+        node.topSize = Math.min(node.topSize + 1, topK);
+    }
+
+    // The subtree top-K is contained in the node's own terminals plus its children's top-K
+    private void recompute(Node node) {
+        List<Integer> candidates = new ArrayList<>();
+        for (int handle : node.terminals) {
+            candidates.add(handle);
+        }
+        for (int c = 0; c < node.childCount; c++) {
+            Node child = node.children[c];
+            for (int i = 0; i < child.topSize; i++) {
+                candidates.add(child.top[i]);
+            }
+        }
+        node.topSize = 0;
+        for (int handle : candidates) {
+            offer(node, handle);
+        }
+    }
+
+    private boolean ranksBefore(int a, int b) {
+        long sa = score.applyAsLong(a);
+        long sb = score.applyAsLong(b);
+        return sa != sb ? sa > sb : a < b;
+    }
+
+    private static int indexOf(int[] values, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int[] append(int[] values, int value) {
+        int[] copy = Arrays.copyOf(values, values.length + 1);
+        copy[values.length] = value;
+        return copy;
+    }
+
+    private static int[] removeAt(int[] values, int index) {
+        int[] copy = new int[values.length - 1];
+        System.arraycopy(values, 0, copy, 0, index);
+        System.arraycopy(values, index + 1, copy, index, copy.length - index);
+        return copy;
+    }
+
+    private static final class Node {
+        char[] labels = new char[0];
+        Node[] children = new Node[0];
+        int childCount;
+        int[] top = EMPTY;
+        int topSize;
+        int[] terminals = EMPTY;
+
+        Node child(char label) {
+            int pos = Arrays.binarySearch(labels, 0, childCount, label);
+            return pos >= 0 ? children[pos] : null;
+        }
+
+        Node childOrCreate(char label) {
+            int pos = Arrays.binarySearch(labels, 0, childCount, label);
+            if (pos >= 0) {
+                return children[pos];
+            }
+            pos = -pos - 1;
+            if (childCount == labels.length) {
+                int capacity = Math.max(1, childCount * 2);
+                labels = Arrays.copyOf(labels, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(labels, pos, labels, pos + 1, childCount - pos);
+            System.arraycopy(children, pos, children, pos + 1, childCount - pos);
+            Node node = new Node();
+            labels[pos] = label;
+            children[pos] = node;
+            childCount++;
+            return node;
+        }
+
+        void removeChild(char label) {
+            int pos = Arrays.binarySearch(labels, 0, childCount, label);
+            if (pos < 0) {
+                return;
+            }
+            System.arraycopy(labels, pos + 1, labels, pos, childCount - pos - 1);
+            System.arraycopy(children, pos + 1, children, pos, childCount - pos - 1);
+            childCount--;
+            children[childCount] = null;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.music_app_project.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+// Accent-insensitive search keys. Vietnamese titles are decomposed and stripped
+// of their combining marks ("Sơn Tùng" -> "son tung"); đ/Đ is not a combining
+// form so it is mapped explicitly.
+public final class SearchKeys {
+
+    // Upper bound for prefix range scans: key <= value < key + MAX_CHAR
+    public static final char MAX_CHAR = Character.MAX_VALUE;
+
+    private SearchKeys() {
+    }
+
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder out = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                pendingSpace = out.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                out.append(' ');
+                pendingSpace = false;
+            }
+            if (c == 'đ' || c == 'Đ') {
+                c = 'd';
+            }
+            out.append(c);
+        }
+        return out.toString().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.music_app_project.util;
+
+// Per-key counts over the last N fixed-width time buckets. Each bucket keeps its
+// own counts in a ring, and a running total is adjusted as counts come in and as
+// whole buckets fall out of the window, so reading the window never sums buckets.
+// Times are in seconds; the window covers the current bucket and the N-1 before it.
+// Not thread-safe.
+public class SlidingWindowCounter {
+
+    private final long bucketSeconds;
+    private final IntLongMap[] ring;
+    private final IntLongMap total = new IntLongMap();
+    private long head;
+
+    public SlidingWindowCounter(long bucketSeconds, int buckets, long nowSeconds) {
+        this.bucketSeconds = bucketSeconds;
+        this.ring = new IntLongMap[buckets];
+        for (int i = 0; i < buckets; i++) {
+            ring[i] = new IntLongMap();
+        }
+        this.head = Math.floorDiv(nowSeconds, bucketSeconds);
+    }
+
+    // Counts older than the window are ignored; later ones move the window forward
+    public void add(int key, long timeSeconds, long delta) {
+        long bucket = Math.floorDiv(timeSeconds, bucketSeconds);
+        if (bucket > head) {
+            advance(bucket * bucketSeconds);
+        } else if (bucket <= head - ring.length) {
+            return;
+        }
+        ring[(int) Math.floorMod(bucket, (long) ring.length)].addTo(key, delta);
+        total.addTo(key, delta);
+    }
+
+    // Drops the buckets that are no longer inside the window ending at the given time
+    public void advance(long nowSeconds) {
+        long bucket = Math.floorDiv(nowSeconds, bucketSeconds);
+        long steps = Math.min(bucket - head, ring.length);
+        for (long i = 1; i <= steps; i++) {
+            IntLongMap expired = ring[(int) Math.floorMod(head + i, (long) ring.length)];
+            expired.forEach((key, value) -> total.addTo(key, -value));
+            expired.clear();
+        }
+        if (bucket > head) {
+            head = bucket;
+        }
+    }
+
+    public IntLongMap totals() {
+        return total;
+    }
+}
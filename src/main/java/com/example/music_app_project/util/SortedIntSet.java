@@ -0,0 +1,108 @@
+package com.example.music_app_project.util;
+
+import java.util.Arrays;
+
+// Growable, sorted array of distinct ints. Used as a posting list: no boxing,
+// binary-search membership and linear-time merge intersection.
+public class SortedIntSet {
+
+    private static final int[] EMPTY = new int[0];
+
+    private int[] values;
+    private int size;
+
+    public SortedIntSet() {
+        this.values = EMPTY;
+    }
+
+    public SortedIntSet(int capacity) {
+        this.values = capacity == 0 ? EMPTY : new int[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int get(int index) {
+        return values[index];
+    }
+
+    public boolean contains(int value) {
+        return Arrays.binarySearch(values, 0, size, value) >= 0;
+    }
+
+    // Returns false if the value was already present
+    public boolean add(int value) {
+        // Ids mostly arrive in increasing order, so try the append fast path first
+        if (size == 0 || values[size - 1] < value) {
+            ensureCapacity(size + 1);
+            values[size++] = value;
+            return true;
+        }
+        int pos = Arrays.binarySearch(values, 0, size, value);
+        if (pos >= 0) {
+            return false;
+        }
+        pos = -pos - 1;
+        ensureCapacity(size + 1);
+        System.arraycopy(values, pos, values, pos + 1, size - pos);
+        values[pos] = value;
+        size++;
+        return true;
+    }
+
+    public boolean remove(int value) {
+        int pos = Arrays.binarySearch(values, 0, size, value);
+        if (pos < 0) {
+            return false;
+        }
+        System.arraycopy(values, pos + 1, values, pos, size - pos - 1);
+        size--;
+        return true;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    // Intersects sorted posting lists, smallest first so the candidate set only shrinks
+    public static int[] intersect(SortedIntSet... sets) {
+        if (sets.length == 0) {
+            return EMPTY;
+        }
+        SortedIntSet[] ordered = sets.clone();
+        Arrays.sort(ordered, (a, b) -> Integer.compare(a.size, b.size));
+        int[] result = ordered[0].toArray();
+        int length = result.length;
+        for (int i = 1; i < ordered.length && length > 0; i++) {
+            length = retain(result, length, ordered[i]);
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    // Keeps in candidates[0..length) only the values present in the set, returns the new length
+    private static int retain(int[] candidates, int length, SortedIntSet set) {
+        int out = 0;
+        int j = 0;
+        for (int i = 0; i < length && j < set.size; i++) {
+            int value = candidates[i];
+            while (j < set.size && set.values[j] < value) {
+                j++;
+            }
+            if (j < set.size && set.values[j] == value) {
+                candidates[out++] = value;
+            }
+        }
+        return out;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            values = Arrays.copyOf(values, Math.max(capacity, Math.max(4, values.length + (values.length >> 1))));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.music_app_project;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.music_app_project.util.DecayingCountMinSketch;
+
+class DecayingCountMinSketchTests {
+
+	private static final double HALF_LIFE = 3_600;
+
+	@Test
+	void countsHalveEveryHalfLife() {
+		DecayingCountMinSketch sketch = new DecayingCountMinSketch(4, 1_024, HALF_LIFE, 0);
+		for (int i = 0; i < 8; i++) {
+			sketch.add(1, 0);
+		}
+		assertThat(sketch.estimate(1, 0)).isCloseTo(8, within(1e-9));
+		assertThat(sketch.estimate(1, 3_600)).isCloseTo(4, within(1e-9));
+		assertThat(sketch.estimate(1, 7_200)).isCloseTo(2, within(1e-9));
+		assertThat(sketch.estimate(2, 7_200)).isZero();
+	}
+
+	@Test
+	void survivesRescaling() {
+		DecayingCountMinSketch sketch = new DecayingCountMinSketch(4, 1_024, HALF_LIFE, 0);
+		sketch.add(1, 0);
+		// 50 half-lives later: past the rescale threshold
+		long later = (long) (50 * HALF_LIFE);
+		sketch.add(1, later);
+		sketch.add(2, later);
+		assertThat(sketch.estimate(1, later)).isCloseTo(1, within(1e-9));
+		assertThat(sketch.estimate(2, later + 3_600)).isCloseTo(0.5, within(1e-9));
+	}
+
+	@Test
+	void neverUnderestimatesAndStaysClose() {
+		DecayingCountMinSketch sketch = new DecayingCountMinSketch(4, 256, HALF_LIFE, 0);
+		Map<Integer, Double> exact = new HashMap<>();
+		Random random = new Random(1);
+		long now = 0;
+		double total = 0;
+		for (int i = 0; i < 20_000; i++) {
+			now += random.nextInt(5);
+			// Skewed keys: a few hot ones, a long tail sharing counters
+			int key = random.nextInt(4) == 0 ? random.nextInt(5) : random.nextInt(2_000);
+			sketch.add(key, now);
+			exact.merge(key, Math.pow(2, now / HALF_LIFE), Double::sum);
+			total += Math.pow(2, now / HALF_LIFE);
+		}
+		double scale = Math.pow(2, now / HALF_LIFE);
+		// Count-min error is at most e / width of the total weight with high probability
+		double slack = Math.E / 256 * total / scale;
+		for (Map.Entry<Integer, Double> entry : exact.entrySet()) {
+			double expected = entry.getValue() / scale;
+			double estimate = sketch.estimate(entry.getKey(), now);
+			assertThat(estimate).as("key %d", entry.getKey()).isGreaterThanOrEqualTo(expected * (1 - 1e-9));
+			assertThat(estimate).as("key %d", entry.getKey()).isLessThanOrEqualTo(expected + slack);
+		}
+	}
+}
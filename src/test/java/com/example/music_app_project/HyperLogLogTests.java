@@ -0,0 +1,74 @@
+package com.example.music_app_project;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.music_app_project.util.HyperLogLog;
+
+// Estimates must stay within four standard errors; the hash is fixed, so these are deterministic
+class HyperLogLogTests {
+
+	private static final double BOUND = 4 * HyperLogLog.STANDARD_ERROR;
+
+	@Test
+	void estimatesWithinBounds() {
+		for (int n : new int[] { 10, 100, 1_000, 10_000, 100_000, 1_000_000 }) {
+			HyperLogLog sketch = new HyperLogLog();
+			for (int i = 0; i < n; i++) {
+				sketch.add(i);
+			}
+			assertThat((double) sketch.estimate()).as("n = %d", n).isCloseTo(n, within(Math.max(1, n * BOUND)));
+		}
+		assertThat(new HyperLogLog().estimate()).isZero();
+	}
+
+	@Test
+	void duplicatesDontCount() {
+		HyperLogLog sketch = new HyperLogLog();
+		for (int round = 0; round < 5; round++) {
+			for (int i = 0; i < 2_000; i++) {
+				sketch.add(i);
+			}
+		}
+		assertThat((double) sketch.estimate()).isCloseTo(2_000, within(2_000 * BOUND));
+	}
+
+	@Test
+	void mergeEstimatesTheUnion() {
+		// Overlapping ranges, one sparse and one dense: 0..299 and 200..49_999
+		HyperLogLog small = new HyperLogLog();
+		for (int i = 0; i < 300; i++) {
+			small.add(i);
+		}
+		HyperLogLog large = new HyperLogLog();
+		for (int i = 200; i < 50_000; i++) {
+			large.add(i);
+		}
+		HyperLogLog union = new HyperLogLog();
+		union.merge(small);
+		union.merge(large);
+		assertThat((double) union.estimate()).isCloseTo(50_000, within(50_000 * BOUND));
+
+		// Merging is order independent and merging a subset changes nothing
+		large.merge(small);
+		assertThat(large.estimate()).isEqualTo(union.estimate());
+		large.merge(small);
+		assertThat(large.estimate()).isEqualTo(union.estimate());
+	}
+
+	@Test
+	void bytesRoundTrip() {
+		HyperLogLog sparse = new HyperLogLog();
+		HyperLogLog dense = new HyperLogLog();
+		for (int i = 0; i < 20_000; i++) {
+			if (i < 50) {
+				sparse.add(i);
+			}
+			dense.add(i);
+		}
+		assertThat(HyperLogLog.fromBytes(sparse.toBytes()).estimate()).isEqualTo(sparse.estimate());
+		assertThat(HyperLogLog.fromBytes(dense.toBytes()).estimate()).isEqualTo(dense.estimate());
+	}
+}
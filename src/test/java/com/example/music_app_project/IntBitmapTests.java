@@ -0,0 +1,118 @@
+package com.example.music_app_project;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.music_app_project.util.IntBitmap;
+
+// A chunk turns into a bitset above 4096 values and back into an array at 2048
+class IntBitmapTests {
+
+	@Test
+	void chunksSwitchRepresentationBothWays() {
+		IntBitmap bitmap = new IntBitmap();
+		TreeSet<Integer> reference = new TreeSet<>();
+		// Every other value of chunk 1, past the array limit
+		for (int i = 0; i < 5_000; i++) {
+			bitmap.add(65_536 + 2 * i);
+			reference.add(65_536 + 2 * i);
+		}
+		assertMatches(bitmap, reference);
+
+		// Back below the limit, then well below half of it
+		for (int i = 0; i < 4_000; i++) {
+			bitmap.remove(65_536 + 2 * i);
+			reference.remove(65_536 + 2 * i);
+			if (i % 500 == 0) {
+				assertMatches(bitmap, reference);
+			}
+		}
+		assertMatches(bitmap, reference);
+
+		// Up again from an array that was a bitset before
+		for (int i = 0; i < 4_000; i++) {
+			bitmap.add(65_537 + 2 * i);
+			reference.add(65_537 + 2 * i);
+		}
+		assertMatches(bitmap, reference);
+	}
+
+	@Test
+	void removingEverythingLeavesAnEmptyBitmap() {
+		IntBitmap bitmap = new IntBitmap();
+		for (int i = 0; i < 10_000; i++) {
+			bitmap.add(i * 7);
+		}
+		for (int i = 0; i < 10_000; i++) {
+			bitmap.remove(i * 7);
+		}
+		assertThat(bitmap.isEmpty()).isTrue();
+		assertThat(bitmap.cardinality()).isZero();
+		assertThat(bitmap.toArray()).isEmpty();
+		assertThat(bitmap.next(0)).isEqualTo(-1);
+		assertThat(bitmap.last()).isEqualTo(-1);
+
+		// Removing a missing value changes nothing, and the bitmap is usable again
+		bitmap.remove(42);
+		bitmap.add(42);
+		assertThat(bitmap.toArray()).containsExactly(42);
+	}
+
+	@Test
+	void setOperationsMatchTreeSet() {
+		Random random = new Random(5);
+		for (int round = 0; round < 20; round++) {
+			TreeSet<Integer> a = randomSet(random);
+			TreeSet<Integer> b = randomSet(random);
+			IntBitmap left = IntBitmap.of(a.stream().mapToInt(Integer::intValue).toArray());
+			IntBitmap right = IntBitmap.of(b.stream().mapToInt(Integer::intValue).toArray());
+
+			TreeSet<Integer> both = new TreeSet<>(a);
+			both.retainAll(b);
+			TreeSet<Integer> onlyLeft = new TreeSet<>(a);
+			onlyLeft.removeAll(b);
+
+			assertMatches(left.and(right), both);
+			assertMatches(left.andNot(right), onlyLeft);
+			assertThat(left.andCardinality(right)).isEqualTo(both.size());
+			assertThat(right.andCardinality(left)).isEqualTo(both.size());
+
+			// The operands are left alone, and a copy is independent of its source
+			assertMatches(left, a);
+			assertMatches(right, b);
+			IntBitmap copy = left.copy();
+			copy.add(1_000_000);
+			assertMatches(left, a);
+		}
+	}
+
+	// Four chunks, each randomly sparse or dense, so every pairing of array and bitset chunks occurs
+	private static TreeSet<Integer> randomSet(Random random) {
+		TreeSet<Integer> set = new TreeSet<>();
+		for (int chunk = 0; chunk < 4; chunk++) {
+			int count = random.nextBoolean() ? random.nextInt(200) : 5_000 + random.nextInt(20_000);
+			for (int i = 0; i < count; i++) {
+				set.add(chunk * 65_536 + random.nextInt(65_536));
+			}
+		}
+		return set;
+	}
+
+	private static void assertMatches(IntBitmap bitmap, TreeSet<Integer> reference) {
+		assertThat(bitmap.toArray()).isEqualTo(reference.stream().mapToInt(Integer::intValue).toArray());
+		assertThat(bitmap.cardinality()).isEqualTo(reference.size());
+		assertThat(bitmap.isEmpty()).isEqualTo(reference.isEmpty());
+		assertThat(bitmap.last()).isEqualTo(reference.isEmpty() ? -1 : reference.last());
+		Random random = new Random(reference.size());
+		for (int i = 0; i < 200; i++) {
+			int value = random.nextInt(4 * 65_536);
+			assertThat(bitmap.contains(value)).as("contains %d", value).isEqualTo(reference.contains(value));
+			Integer next = reference.ceiling(value);
+			assertThat(bitmap.next(value)).as("next %d", value).isEqualTo(next == null ? -1 : next);
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package com.example.music_app_project;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.music_app_project.util.IntLongMap;
+
+// Random operations checked against a HashMap, so probing, growth and
+// backward-shift deletion are exercised together
+class IntLongMapTests {
+
+	@Test
+	void matchesHashMap() {
+		Random random = new Random(42);
+		IntLongMap map = new IntLongMap();
+		Map<Integer, Long> reference = new HashMap<>();
+		for (int i = 0; i < 100_000; i++) {
+			// Small key range so keys collide, come back and drop to zero often
+			int key = 1 + random.nextInt(2_000);
+			if (random.nextInt(10) == 0) {
+				map.remove(key);
+				reference.remove(key);
+			} else {
+				long delta = random.nextInt(7) - 3;
+				long value = map.addTo(key, delta);
+				long expected = reference.getOrDefault(key, 0L) + delta;
+				if (expected == 0) {
+					reference.remove(key);
+				} else {
+					reference.put(key, expected);
+				}
+				assertThat(value).isEqualTo(expected);
+			}
+		}
+		assertThat(map.size()).isEqualTo(reference.size());
+		for (int key = 1; key <= 2_000; key++) {
+			assertThat(map.get(key)).as("key %d", key).isEqualTo(reference.getOrDefault(key, 0L));
+		}
+		Map<Integer, Long> visited = new HashMap<>();
+		map.forEach(visited::put);
+		assertThat(visited).isEqualTo(reference);
+	}
+
+	@Test
+	void topIsLargestFirstWithTiesToSmallerKey() {
+		Random random = new Random(7);
+		IntLongMap map = new IntLongMap();
+		Map<Integer, Long> reference = new HashMap<>();
+		for (int key = 1; key <= 500; key++) {
+			// Few distinct counts, so many ties
+			long count = 1 + random.nextInt(20);
+			map.addTo(key, count);
+			reference.put(key, count);
+		}
+		int[] expected = reference.entrySet().stream()
+				.sorted(Map.Entry.<Integer, Long>comparingByValue().reversed()
+						.thenComparing(Map.Entry.comparingByKey(Comparator.naturalOrder())))
+				.limit(25)
+				.mapToInt(Map.Entry::getKey)
+				.toArray();
+		assertThat(map.top(25)).containsExactly(expected);
+		assertThat(map.top(1_000)).hasSize(500);
+		assertThat(new IntLongMap().top(10)).isEmpty();
+	}
+
+	@Test
+	void zeroDeltaOnMissingKeyAddsNothing() {
+		IntLongMap map = new IntLongMap();
+		assertThat(map.addTo(5, 0)).isZero();
+		assertThat(map.isEmpty()).isTrue();
+	}
+}
@@ -0,0 +1,121 @@
+package com.example.music_app_project;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.music_app_project.model.Album;
+import com.example.music_app_project.model.Artist;
+import com.example.music_app_project.model.Genre;
+import com.example.music_app_project.model.Song;
+import com.example.music_app_project.repository.AlbumRepository;
+import com.example.music_app_project.repository.ArtistRepository;
+import com.example.music_app_project.repository.GenreRepository;
+import com.example.music_app_project.repository.SongRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// List endpoints must cost one SQL statement regardless of how many rows they return
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:listquerycount;DB_CLOSE_DELAY=-1",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+class ListQueryCountTests {
+
+	private static final int ROWS = 5;
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	@Autowired
+	private ArtistRepository artistRepository;
+	@Autowired
+	private AlbumRepository albumRepository;
+	@Autowired
+	private GenreRepository genreRepository;
+	@Autowired
+	private SongRepository songRepository;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		if (songRepository.count() > 0) {
+			return;
+		}
+		for (int i = 0; i < ROWS; i++) {
+			Artist artist = new Artist();
+			artist.setName("Artist " + i);
+			artist = artistRepository.save(artist);
+
+			Album album = new Album();
+			album.setTitle("Album " + i);
+			album.setArtist(artist);
+			album = albumRepository.save(album);
+
+			Genre genre = new Genre();
+			genre.setGenreName("Genre " + i);
+			genre = genreRepository.save(genre);
+
+			Song song = new Song();
+			song.setTitle("Song " + i);
+			song.setArtist(artist);
+			song.setAlbum(album);
+			song.setGenre(genre);
+			songRepository.save(song);
+		}
+	}
+
+	@Test
+	void songListIsOneStatement() throws Exception {
+		statistics.clear();
+		mockMvc.perform(get("/api/songs"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(ROWS))
+				.andExpect(jsonPath("$[0].album.artist.name").value("Artist 0"));
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void songPageIsOneStatement() throws Exception {
+		statistics.clear();
+		mockMvc.perform(get("/api/songs").param("limit", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(2));
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void artistListIsOneStatement() throws Exception {
+		statistics.clear();
+		mockMvc.perform(get("/api/artists"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(ROWS));
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void albumListIsOneStatement() throws Exception {
+		statistics.clear();
+		mockMvc.perform(get("/api/albums"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(ROWS))
+				.andExpect(jsonPath("$[0].artist.name").value("Artist 0"));
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+}
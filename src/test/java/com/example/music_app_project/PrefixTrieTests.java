@@ -0,0 +1,136 @@
+package com.example.music_app_project;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.music_app_project.util.PrefixTrie;
+
+// Completions checked against a scan over every key. Weights only change by
+// removing a handle's keys and inserting them again, as SuggestionIndex does.
+class PrefixTrieTests {
+
+	private static final int TOP_K = 5;
+	private static final String ALPHABET = "abc";
+
+	private final Map<Integer, Long> scores = new HashMap<>();
+	private final Map<Integer, List<String>> keys = new HashMap<>();
+	private final PrefixTrie trie = new PrefixTrie(TOP_K, scores::get);
+
+	@Test
+	void completesBestFirstWithTiesToLowerHandle() {
+		put(1, 10, "abc");
+		put(2, 30, "abd");
+		put(3, 30, "ab");
+		put(4, 5, "b");
+		assertThat(trie.complete("ab", 10)).containsExactly(2, 3, 1);
+		assertThat(trie.complete("abc", 10)).containsExactly(1);
+		assertThat(trie.complete("ab", 2)).containsExactly(2, 3);
+		assertThat(trie.complete("x", 10)).isEmpty();
+		assertThat(trie.complete("", 10)).isEmpty();
+	}
+
+	@Test
+	void weightChangesAndRemovalsMatchAScan() {
+		Random random = new Random(3);
+		for (int handle = 0; handle < 300; handle++) {
+			put(handle, random.nextInt(50), randomKeys(random));
+		}
+		assertCompletions();
+		for (int i = 0; i < 2_000; i++) {
+			int handle = random.nextInt(400);
+			int op = random.nextInt(3);
+			if (keys.containsKey(handle)) {
+				List<String> handleKeys = remove(handle);
+				if (op == 0) {
+					// New weight, same keys; may move the handle into or out of any cached top-K
+					put(handle, random.nextInt(50), handleKeys);
+				} else if (op == 1) {
+					put(handle, random.nextInt(50), randomKeys(random));
+				}
+			} else {
+				put(handle, random.nextInt(50), randomKeys(random));
+			}
+			if (i % 100 == 0) {
+				assertCompletions();
+			}
+		}
+		assertCompletions();
+
+		// Removing everything prunes the trie down to nothing
+		for (Integer handle : new ArrayList<>(keys.keySet())) {
+			remove(handle);
+		}
+		assertCompletions();
+		assertThat(trie.complete("a", TOP_K)).isEmpty();
+	}
+
+	private void put(int handle, long score, String... handleKeys) {
+		put(handle, score, List.of(handleKeys));
+	}
+
+	private void put(int handle, long score, List<String> handleKeys) {
+		scores.put(handle, score);
+		keys.put(handle, handleKeys);
+		for (String key : handleKeys) {
+			trie.insert(key, handle);
+		}
+	}
+
+	// Keys first: the trie ranks with the score while it refills its caches
+	private List<String> remove(int handle) {
+		List<String> handleKeys = keys.remove(handle);
+		for (String key : handleKeys) {
+			trie.remove(key, handle);
+		}
+		scores.remove(handle);
+		return handleKeys;
+	}
+
+	private static List<String> randomKeys(Random random) {
+		Set<String> handleKeys = new TreeSet<>();
+		for (int n = 1 + random.nextInt(2); handleKeys.size() < n; ) {
+			StringBuilder key = new StringBuilder();
+			for (int length = 1 + random.nextInt(4); key.length() < length; ) {
+				key.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+			}
+			handleKeys.add(key.toString());
+		}
+		return new ArrayList<>(handleKeys);
+	}
+
+	// Every prefix up to three letters
+	private void assertCompletions() {
+		List<String> prefixes = new ArrayList<>(List.of(""));
+		for (int i = 0; i < prefixes.size(); i++) {
+			String prefix = prefixes.get(i);
+			if (prefix.length() < 3) {
+				for (char c : ALPHABET.toCharArray()) {
+					prefixes.add(prefix + c);
+				}
+			}
+			if (!prefix.isEmpty()) {
+				assertThat(trie.complete(prefix, TOP_K)).as("prefix %s", prefix).containsExactly(scan(prefix));
+			}
+		}
+	}
+
+	private int[] scan(String prefix) {
+		return keys.entrySet().stream()
+				.filter(e -> e.getValue().stream().anyMatch(key -> key.startsWith(prefix)))
+				.map(Map.Entry::getKey)
+				.sorted((a, b) -> scores.get(a).equals(scores.get(b)) ? Integer.compare(a, b)
+						: Long.compare(scores.get(b), scores.get(a)))
+				.limit(TOP_K)
+				.mapToInt(Integer::intValue)
+				.toArray();
+	}
+}
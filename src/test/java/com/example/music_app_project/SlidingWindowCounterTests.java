@@ -0,0 +1,56 @@
+package com.example.music_app_project;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.music_app_project.util.SlidingWindowCounter;
+
+// A window of 3 buckets of 60 s, starting at t = 0
+class SlidingWindowCounterTests {
+
+	@Test
+	void countsLeaveTheWindowWithTheirBucket() {
+		SlidingWindowCounter counter = new SlidingWindowCounter(60, 3, 0);
+		counter.add(1, 10, 1);
+		counter.add(1, 70, 2);
+		counter.add(2, 130, 5);
+		assertThat(counter.totals().get(1)).isEqualTo(3);
+		assertThat(counter.totals().get(2)).isEqualTo(5);
+
+		// Bucket 0 falls out
+		counter.advance(180);
+		assertThat(counter.totals().get(1)).isEqualTo(2);
+		assertThat(counter.totals().get(2)).isEqualTo(5);
+
+		// Buckets 1 and 2 fall out; expired keys are removed, not left at zero
+		counter.advance(300);
+		assertThat(counter.totals().get(1)).isZero();
+		assertThat(counter.totals().get(2)).isZero();
+		assertThat(counter.totals().isEmpty()).isTrue();
+	}
+
+	@Test
+	void jumpPastTheWholeWindowClearsEverything() {
+		SlidingWindowCounter counter = new SlidingWindowCounter(60, 3, 0);
+		counter.add(1, 0, 1);
+		counter.add(1, 100, 1);
+		counter.advance(10_000);
+		assertThat(counter.totals().isEmpty()).isTrue();
+	}
+
+	@Test
+	void addMovesTheWindowAndIgnoresExpiredTimes() {
+		SlidingWindowCounter counter = new SlidingWindowCounter(60, 3, 0);
+		counter.add(1, 0, 1);
+		// A later play moves the window to buckets 2..4
+		counter.add(1, 250, 1);
+		assertThat(counter.totals().get(1)).isEqualTo(1);
+		// Too old for the window now
+		counter.add(1, 30, 1);
+		assertThat(counter.totals().get(1)).isEqualTo(1);
+		// Still inside it
+		counter.add(1, 130, 1);
+		assertThat(counter.totals().get(1)).isEqualTo(2);
+	}
+}
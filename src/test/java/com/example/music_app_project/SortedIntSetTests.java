@@ -0,0 +1,53 @@
+package com.example.music_app_project;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.music_app_project.util.SortedIntSet;
+
+class SortedIntSetTests {
+
+	@Test
+	void matchesTreeSet() {
+		Random random = new Random(11);
+		SortedIntSet set = new SortedIntSet();
+		TreeSet<Integer> reference = new TreeSet<>();
+		for (int i = 0; i < 50_000; i++) {
+			// Mostly ascending, as ids arrive, with some going back into the middle
+			int value = random.nextInt(4) == 0 ? random.nextInt(2_000) : i / 20;
+			if (random.nextInt(3) == 0) {
+				assertThat(set.remove(value)).isEqualTo(reference.remove(value));
+			} else {
+				assertThat(set.add(value)).isEqualTo(reference.add(value));
+			}
+		}
+		assertThat(set.size()).isEqualTo(reference.size());
+		assertThat(set.toArray()).isEqualTo(reference.stream().mapToInt(Integer::intValue).toArray());
+		for (int value = 0; value < 3_000; value++) {
+			assertThat(set.contains(value)).as("value %d", value).isEqualTo(reference.contains(value));
+		}
+	}
+
+	@Test
+	void intersectKeepsCommonValues() {
+		SortedIntSet evens = new SortedIntSet();
+		SortedIntSet threes = new SortedIntSet();
+		SortedIntSet small = new SortedIntSet(4);
+		for (int i = 0; i < 1_000; i++) {
+			evens.add(2 * i);
+			threes.add(3 * i);
+		}
+		small.add(12);
+		small.add(13);
+		small.add(600);
+		small.add(3_000);
+		assertThat(SortedIntSet.intersect(evens, threes)).hasSize(334).startsWith(0, 6, 12).endsWith(1_998);
+		assertThat(SortedIntSet.intersect(evens, small, threes)).containsExactly(12, 600);
+		assertThat(SortedIntSet.intersect(evens, new SortedIntSet())).isEmpty();
+		assertThat(SortedIntSet.intersect()).isEmpty();
+	}
+}